@@ -0,0 +1,103 @@
+package com.mct.base.ui;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Inflate layouts on a background thread, the result is delivered on main thread.<br/>
+ * The background inflater has no factory: the factories set on the inflater of the activity
+ * (e.g. the AppCompat widget substitution) are not thread safe, the framework widgets are
+ * created as is, like {@code AsyncLayoutInflater} does. Views that cannot be created off the
+ * main thread (e.g. they create a Handler, or a {@code <fragment>} tag) make the inflation fail,
+ * the layout is then inflated again on main thread with the given inflater.
+ */
+final class AsyncViewInflater {
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+    private static final Executor sExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runnable.run();
+        }, "BaseUi-AsyncInflater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncViewInflater() {
+        //no instance
+    }
+
+    static void inflate(@NonNull LayoutInflater inflater,
+                        @LayoutRes int layoutId,
+                        @NonNull ViewGroup parent,
+                        @NonNull Callback callback) {
+        LayoutInflater basicInflater = new BasicInflater(inflater.getContext());
+        sExecutor.execute(() -> {
+            View view;
+            try {
+                view = basicInflater.inflate(layoutId, parent, false);
+            } catch (RuntimeException e) {
+                view = null;
+            }
+            View result = view;
+            sMainHandler.post(() -> callback.onInflated(result != null
+                    ? result
+                    : inflater.inflate(layoutId, parent, false)));
+        });
+    }
+
+    interface Callback {
+        void onInflated(@NonNull View view);
+    }
+
+    /**
+     * Inflater without factory, short names are resolved in the framework widget packages.
+     */
+    private static final class BasicInflater extends LayoutInflater {
+
+        private static final String[] CLASS_PREFIXES = {
+                "android.widget.",
+                "android.webkit.",
+                "android.app."
+        };
+
+        BasicInflater(@NonNull Context context) {
+            super(context);
+        }
+
+        @Override
+        public LayoutInflater cloneInContext(Context newContext) {
+            return new BasicInflater(newContext);
+        }
+
+        @Nullable
+        @Override
+        protected View onCreateView(String name, AttributeSet attrs) throws ClassNotFoundException {
+            for (String prefix : CLASS_PREFIXES) {
+                try {
+                    View view = createView(name, prefix, attrs);
+                    if (view != null) {
+                        return view;
+                    }
+                } catch (ClassNotFoundException ignored) {
+                    // try the next package
+                }
+            }
+            return super.onCreateView(name, attrs);
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+package com.mct.base.ui;
+
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+
+import com.mct.base.ui.core.IBackStackEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Indexed mirror of the FragmentManager back stack, keyed by entry id.<br/>
+ * Updated from {@link FragmentManager.OnBackStackChangedListener}: the entry ids are compared
+ * from the bottom and the index is rebuilt from the first changed entry, lookups are O(1).
+ * The fragment added by an entry is bound to the entry id when it is committed, the id is also
+ * kept in its arguments to find it again after a restore. Tags are class names and can be shared
+ * by several instances, the bound fragment is unambiguous.
+ */
+final class BackStackIndex implements FragmentManager.OnBackStackChangedListener {
+
+    private static final char TAG_SEPARATOR = '#';
+    private static final String ARG_ENTRY_ID = "com.mct.base.ui.BackStackIndex:entry_id";
+
+    private final FragmentManager mFragmentManager;
+    private final List<Entry> mEntries = new ArrayList<>();
+    private final Map<String, List<Entry>> mEntriesByClass = new HashMap<>();
+    private final Map<Integer, Fragment> mFragments = new HashMap<>();
+    private final Callback mCallback;
+    private List<IBackStackEntry> mSnapshot;
+
+    BackStackIndex(@NonNull FragmentManager fragmentManager, @NonNull Callback callback) {
+        this.mFragmentManager = fragmentManager;
+        this.mCallback = callback;
+        sync();
+    }
+
+    /**
+     * Tag of a fragment, also used as back stack name: the class name, so lookups and pops by
+     * class name keep working.
+     */
+    @NonNull
+    static String createTag(@NonNull Fragment fragment) {
+        return fragment.getClass().getName();
+    }
+
+    /**
+     * Tag unique to a fragment instance, "class name#id", used by the named back stacks which
+     * save and find their roots and entries by name.
+     */
+    @NonNull
+    static String createUniqueTag(@NonNull Fragment fragment) {
+        return createTag(fragment) + TAG_SEPARATOR + UUID.randomUUID();
+    }
+
+    /**
+     * @return class name of a tag created by {@link #createTag} or {@link #createUniqueTag}
+     */
+    @Nullable
+    static String getClassName(@Nullable String tag) {
+        if (tag == null) {
+            return null;
+        }
+        int index = tag.lastIndexOf(TAG_SEPARATOR);
+        return index > 0 ? tag.substring(0, index) : tag;
+    }
+
+    /**
+     * Give arguments to the fragment, its entry id is put in them once committed. Call before
+     * the fragment is added.
+     */
+    static void prepare(@NonNull Fragment fragment) {
+        if (fragment.getArguments() == null) {
+            fragment.setArguments(new Bundle());
+        }
+    }
+
+    /**
+     * Bind the fragment to the entry committed for it.
+     *
+     * @param entryId id returned by the commit, negative without back stack
+     */
+    void bind(int entryId, @NonNull Fragment fragment) {
+        if (entryId < 0) {
+            return;
+        }
+        Bundle args = fragment.getArguments();
+        if (args != null) {
+            args.putInt(ARG_ENTRY_ID, entryId);
+        }
+        mFragments.put(entryId, fragment);
+    }
+
+    /**
+     * @return fragment added by the entry, null if the entry is not created by {@link ExtraTransaction}
+     */
+    @Nullable
+    Fragment findFragment(@NonNull IBackStackEntry entry) {
+        Fragment fragment = mFragments.get(entry.getId());
+        if (fragment == null) {
+            // bindings are not saved, the restored fragments keep the entry id in their arguments
+            for (Fragment candidate : mFragmentManager.getFragments()) {
+                Bundle args = candidate.getArguments();
+                if (args != null && args.getInt(ARG_ENTRY_ID, -1) == entry.getId()) {
+                    fragment = candidate;
+                    mFragments.put(entry.getId(), fragment);
+                    break;
+                }
+            }
+        }
+        return fragment;
+    }
+
+    int size() {
+        return mEntries.size();
+    }
+
+    @Nullable
+    IBackStackEntry getTop() {
+        return mEntries.isEmpty() ? null : mEntries.get(mEntries.size() - 1);
+    }
+
+    @Nullable
+    IBackStackEntry getAt(int position) {
+        return position >= 0 && position < mEntries.size() ? mEntries.get(position) : null;
+    }
+
+    /**
+     * @return the top most entry that added an instance of class
+     */
+    @Nullable
+    IBackStackEntry findLast(@NonNull Class<?> clazz) {
+        List<Entry> entries = mEntriesByClass.get(clazz.getName());
+        return entries == null || entries.isEmpty() ? null : entries.get(entries.size() - 1);
+    }
+
+    @NonNull
+    List<IBackStackEntry> snapshot() {
+        if (mSnapshot == null) {
+            mSnapshot = Collections.unmodifiableList(new ArrayList<>(mEntries));
+        }
+        return mSnapshot;
+    }
+
+    @Override
+    public void onBackStackChanged() {
+        if (sync()) {
+            mCallback.onIndexChanged(this);
+        }
+    }
+
+    private boolean sync() {
+        FragmentManager fm = mFragmentManager;
+        int count = fm.getBackStackEntryCount();
+        int kept = 0;
+        while (kept < mEntries.size() && kept < count
+                && mEntries.get(kept).id == fm.getBackStackEntryAt(kept).getId()) {
+            kept++;
+        }
+        boolean changed = kept != mEntries.size() || kept != count;
+        while (mEntries.size() > kept) {
+            removeTop();
+        }
+        for (int i = kept; i < count; i++) {
+            FragmentManager.BackStackEntry backStackEntry = fm.getBackStackEntryAt(i);
+            push(new Entry(backStackEntry.getId(), i, backStackEntry.getName()));
+        }
+        if (changed) {
+            mSnapshot = null;
+        }
+        return changed;
+    }
+
+    private void push(@NonNull Entry entry) {
+        mEntries.add(entry);
+        if (entry.className != null) {
+            List<Entry> entries = mEntriesByClass.get(entry.className);
+            if (entries == null) {
+                entries = new ArrayList<>(2);
+                mEntriesByClass.put(entry.className, entries);
+            }
+            entries.add(entry);
+        }
+    }
+
+    private void removeTop() {
+        Entry entry = mEntries.remove(mEntries.size() - 1);
+        mFragments.remove(entry.id);
+        if (entry.className != null) {
+            List<Entry> entries = mEntriesByClass.get(entry.className);
+            if (entries != null && !entries.isEmpty()) {
+                // entries of a class are in stack order, the removed one is always the last
+                entries.remove(entries.size() - 1);
+                if (entries.isEmpty()) {
+                    mEntriesByClass.remove(entry.className);
+                }
+            }
+        }
+    }
+
+    interface Callback {
+        void onIndexChanged(@NonNull BackStackIndex index);
+    }
+
+    private static final class Entry implements IBackStackEntry {
+
+        private final int id;
+        private final int position;
+        private final String name;
+        private final String className;
+
+        private Entry(int id, int position, String name) {
+            this.id = id;
+            this.position = position;
+            this.name = name;
+            this.className = getClassName(name);
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public int getPosition() {
+            return position;
+        }
+
+        @Nullable
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Nullable
+        @Override
+        public String getFragmentClassName() {
+            return className;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "BackStackEntry{id=" + id + ", position=" + position + ", name=" + name + "}";
+        }
+    }
+
+}
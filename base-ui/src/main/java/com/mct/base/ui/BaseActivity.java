@@ -36,23 +36,30 @@ public abstract class BaseActivity extends AppCompatActivity {
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         mHandler = new Handler(getMainLooper());
+        PredictiveBackCallback backCallback = new PredictiveBackCallback(this);
+        getOnBackPressedDispatcher().addCallback(this, backCallback);
     }
 
     @SuppressWarnings("deprecation")
     @Override
     public final void onBackPressed() {
+        // the always enabled PredictiveBackCallback dispatches the press to the fragments
+        super.onBackPressed();
+    }
+
+    /**
+     * @return true if the back press is handled by the fragments or the activity
+     */
+    boolean dispatchBackPressed() {
         Fragment fragment = extraTransaction().getCurrentFragment();
         if (fragment instanceof IBaseFragment && ((IBaseFragment) fragment).onBackPressed()) {
-            return;
+            return true;
         }
         if (extraTransaction().getBackStackCount() != 0) {
             extraTransaction().popFragment();
-            return;
-        }
-        if (onHandleBackPressed()) {
-            return;
+            return true;
         }
-        super.onBackPressed();
+        return onHandleBackPressed();
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -88,11 +95,24 @@ public abstract class BaseActivity extends AppCompatActivity {
 
     protected IExtraTransaction extraTransaction() {
         if (mIExtraTransaction == null) {
-            mIExtraTransaction = new ExtraTransaction(getContainerId(), getSupportFragmentManager(), keyboardManager());
+            mIExtraTransaction = new ExtraTransaction(getContainerId(), getSupportFragmentManager(), keyboardManager(), this);
         }
         return mIExtraTransaction;
     }
 
+    /**
+     * Report timing of navigations in the activity container.
+     *
+     * @see IExtraTransaction#addOnNavigationTimingListener(IExtraTransaction.OnNavigationTimingListener)
+     */
+    public void addOnNavigationTimingListener(@NonNull IExtraTransaction.OnNavigationTimingListener listener) {
+        extraTransaction().addOnNavigationTimingListener(listener);
+    }
+
+    public void removeOnNavigationTimingListener(@NonNull IExtraTransaction.OnNavigationTimingListener listener) {
+        extraTransaction().removeOnNavigationTimingListener(listener);
+    }
+
     protected void post(Runnable runnable) {
         mHandler.post(runnable);
     }
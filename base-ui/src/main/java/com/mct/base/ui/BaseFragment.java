@@ -1,16 +1,24 @@
 package com.mct.base.ui;
 
 import android.animation.Animator;
+import android.animation.ValueAnimator;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.graphics.Color;
 import android.graphics.Point;
+import android.os.Build;
 import android.os.Bundle;
+import android.os.PowerManager;
+import android.provider.Settings;
+import android.view.LayoutInflater;
+import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.animation.Animation;
+import android.widget.FrameLayout;
 
 import androidx.annotation.ColorInt;
+import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
@@ -20,16 +28,22 @@ import com.mct.base.ui.core.IBaseFragment;
 import com.mct.base.ui.core.IBaseView;
 import com.mct.base.ui.core.IExtraTransaction;
 import com.mct.base.ui.core.IKeyboardManager;
+import com.mct.base.ui.transition.ExitSnapshot;
 import com.mct.base.ui.transition.FragmentTransitionAnimFactory;
+import com.mct.base.ui.transition.TransitionQualityPolicy;
+import com.mct.base.ui.transition.animation.ComposedAnimation;
 import com.mct.base.ui.transition.animation.NoneAnimation;
 import com.mct.base.ui.transition.animator.CircularRevealAnimator;
 import com.mct.base.ui.transition.annotation.AnimType;
 import com.mct.base.ui.transition.annotation.AnimatorStyle;
 import com.mct.base.ui.transition.options.AnimExtras;
+import com.mct.base.ui.transition.options.AnimExtrasPool;
 import com.mct.base.ui.transition.options.AnimOptions;
 import com.mct.base.ui.transition.options.AnimOptionsData;
+import com.mct.base.ui.widget.FragmentContainerLayout;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
 
 public abstract class BaseFragment extends Fragment implements IBaseFragment, IBaseView, AnimExtras.AnimExtrasListener {
 
@@ -37,11 +51,39 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
     private static final int OVERLAY_VIEW_ELEVATION = 0;
     private static final int DISABLE_TOUCH_OVERLAY_VIEW_ELEVATION = 9999;
     private static final int ANIMATION_DURATION = 300;
+    private static final int ASYNC_INFLATE_TIMEOUT = 1000;
 
     private IBaseActivity mIBaseActivity;
     private IExtraTransaction mIExtraTransaction;
     private AnimExtras mAnimExtras;
+    private final AnimOptionsData mAnimOptionsData = new AnimOptionsData();
     private boolean mPendingPreventAnimation;
+    private boolean mSilentExit;
+    private NavigationTiming mNavigationTiming;
+    private int mPopEnterAnim;
+    private int mPopExitAnim;
+    private AnimExtras mBackPreview;
+    private int mBackPreviewVisibility = -1;
+    private float mBackPreviewFraction;
+    @LayoutRes
+    private final int mContentLayoutId;
+    private View mPrefetchedView;
+    private FrameLayout mAsyncPlaceholder;
+
+    public BaseFragment() {
+        super();
+        this.mContentLayoutId = 0;
+    }
+
+    /**
+     * The content layout can be prepared before navigation.
+     *
+     * @see IExtraTransaction#prefetch(Class, Bundle)
+     */
+    public BaseFragment(@LayoutRes int contentLayoutId) {
+        super(contentLayoutId);
+        this.mContentLayoutId = contentLayoutId;
+    }
 
     ///////////////////////////////////////////////////////////////////////////
     // Lifecycle area
@@ -52,7 +94,7 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
         super.onAttach(context);
         if (context instanceof BaseActivity) {
             mIBaseActivity = ((BaseActivity) context).getBaseActivity();
-            mIExtraTransaction = new ExtraTransaction(getContainerId(), getChildFragmentManager(), mIBaseActivity.keyboardManager());
+            mIExtraTransaction = new ExtraTransaction(getContainerId(), getChildFragmentManager(), mIBaseActivity.keyboardManager(), this);
         } else {
             throw new RuntimeException("The activity must extends BaseActivity!");
         }
@@ -61,26 +103,67 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
     @Nullable
     @Override
     public Animation onCreateAnimation(int transit, boolean enter, int nextAnim) {
-        if (mPendingPreventAnimation) {
+        float startFraction = consumeBackPreview();
+        // the silent exit only applies to the transition following the pop that set it
+        boolean silentExit = mSilentExit;
+        mSilentExit = false;
+        if (mPendingPreventAnimation || (silentExit && !enter)) {
             mPendingPreventAnimation = false;
             return NoneAnimation.create(0);
         }
+        if (canSkipAnimation()) {
+            // nothing is built, the start and end bookkeeping runs now
+            dispatchSkippedAnimation(transit, enter, nextAnim);
+            return NoneAnimation.create(0);
+        }
         if (transit == 0 && nextAnim <= 0) {
-            mAnimExtras = FragmentTransitionAnimFactory.create(createAnimOptionsData(nextAnim, enter));
+            mAnimExtras = createAnimExtras(nextAnim, enter);
         } else {
             mAnimExtras = FragmentTransitionAnimFactory.create(getContext(), transit, enter, nextAnim);
         }
 
         mAnimExtras.setAnimInfo(transit, enter, nextAnim);
+        mAnimExtras.setStartFraction(startFraction);
+        mAnimExtras.setHardwareLayerView(canUseHardwareLayerWhileRunningAnimation() ? getView() : null);
+        mAnimExtras.setTargetView(getView());
+        TransitionQualityPolicy policy = getTransitionQualityPolicy();
+        if (policy != null && enter) {
+            policy.trackTransition(mAnimExtras, getView());
+        }
+        if (!enter && getView() != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                && canUseSnapshotWhileRunningExitAnimation()) {
+            // a removed fragment has saved its view state, its view is destroyed at the end
+            ExitSnapshot.attach(mAnimExtras, getView(), getParentView(), isRemoving());
+        }
         mAnimExtras.addAnimationListener(this);
 
+        View container = getParentView();
+        if (container != null) {
+            TransitionClock.of(container).start(mAnimExtras);
+        }
+
         return mAnimExtras.animation != null ? mAnimExtras.animation : null;
     }
 
     @Nullable
     @Override
     public Animator onCreateAnimator(int transit, boolean enter, int nextAnim) {
-        return mAnimExtras.animator;
+        return mAnimExtras != null ? mAnimExtras.animator : null;
+    }
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+        View view = mPrefetchedView;
+        mPrefetchedView = null;
+        if (view != null && view.getParent() == null) {
+            return view;
+        }
+        // restored view state needs the real hierarchy
+        if (mContentLayoutId != 0 && savedInstanceState == null && canInflateAsync()) {
+            return createAsyncContentView(inflater);
+        }
+        return super.onCreateView(inflater, container, savedInstanceState);
     }
 
     @Override
@@ -95,6 +178,10 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
     public void onDestroyView() {
         super.onDestroyView();
         clearOverlay();
+        mPendingPreventAnimation = false;
+        mSilentExit = false;
+        mPrefetchedView = null;
+        mAsyncPlaceholder = null;
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -108,16 +195,18 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
         boolean enter = animExtras.isEnter();
         int nextAnim = animExtras.getNextAnim();
 
-        // update elevation before running animation
-        int e = VIEW_ELEVATION;
-        if (getView() != null) {
-            getView().setElevation(getPopDirection() ? enter ? -e : e : enter ? e : -e);
+        if (enter && mNavigationTiming != null) {
+            mNavigationTiming.markAnimationStart(transit, nextAnim);
         }
 
+        // update elevation before running animation
+        updateAnimationElevation(enter);
+
         if (transit == 0 && nextAnim <= 0) {
-            AnimOptions options = AnimOptions.fromOptionsValue(nextAnim);
+            // options decided by the quality policy
+            AnimOptions options = mAnimOptionsData.getOptions();
             if (options.hasOverlay() && canShowOverlayWhileRunningAnimation()) {
-                setFragmentOverlay(true);
+                setFragmentOverlay(true, options.getOverlayIntensity(), animExtras.getDuration());
             }
         }
 
@@ -128,12 +217,20 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
 
     @Override
     public void onAnimationEnd(@NonNull AnimExtras animExtras) {
-        setDisableFragmentTouch(false);
-        setFragmentOverlay(false);
-        if (mAnimExtras != null) {
-            mAnimExtras.removeAllListeners();
-            mAnimExtras = null;
+        animExtras.removeAllListeners();
+        View container = getParentView();
+        if (container != null) {
+            TransitionClock.of(container).finish(animExtras);
+        }
+        if (animExtras.animation != null) {
+            recycleAnimExtras(animExtras, getView());
+        }
+        if (mAnimExtras != animExtras) {
+            return; // a newer transition owns the overlays
         }
+        mAnimExtras = null;
+        setDisableFragmentTouch(false);
+        setFragmentOverlay(false, 0, 0);
     }
 
     /* ---------- IBaseFragment ---------- */
@@ -234,7 +331,8 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
     @Override
     public final boolean onBackPressed() {
         if (mAnimExtras != null) {
-            return true; // block when animation is running.
+            // the press is not dropped, it is handled from the end state of the transition
+            endRunningTransition();
         }
         Fragment fragment = childExtraTransaction().getCurrentFragment();
         if (fragment instanceof IBaseFragment && ((IBaseFragment) fragment).onBackPressed()) {
@@ -280,14 +378,107 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
         return false;
     }
 
+    /**
+     * Return false when the view content changes while the transition runs (video, progress, etc.),
+     * the view is then redrawn on every frame instead of being cached in a hardware layer.
+     */
+    protected boolean canUseHardwareLayerWhileRunningAnimation() {
+        return true;
+    }
+
+    /**
+     * Return true for heavy views (maps, charts, long lists), the exit transition then animates
+     * a snapshot of the view copied from the window, api 26 and above.
+     * Its children are released when the fragment is removed, hidden until the end otherwise.
+     */
+    protected boolean canUseSnapshotWhileRunningExitAnimation() {
+        return false;
+    }
+
     protected boolean canTouchThroughBelowFragment() {
         return false;
     }
 
+    /**
+     * Return false to stay RESUMED while this fragment is hidden in the back stack.
+     *
+     * @see IExtraTransaction#setHiddenMaxLifecycle(androidx.lifecycle.Lifecycle.State)
+     */
+    protected boolean canCapLifecycleWhenHidden() {
+        return true;
+    }
+
+    /**
+     * Return false to keep the view while this fragment is hidden deep in the back stack.
+     *
+     * @see IExtraTransaction#setMaxRetainedViews(int)
+     */
+    protected boolean canDestroyViewWhenHidden() {
+        return true;
+    }
+
+    /**
+     * Return true to inflate the content layout on a background thread, only for fragments created
+     * with {@link #BaseFragment(int)}. A light placeholder is the fragment view until the content
+     * is ready, bind the content in {@link #onContentViewCreated(View)}. The layout is inflated
+     * without the AppCompat factory, its widgets are not replaced by their AppCompat version.
+     */
+    protected boolean canInflateAsync() {
+        return false;
+    }
+
+    /**
+     * Async inflation policy: return true to run the enter animation on the placeholder,
+     * false to postpone it until the content is attached.
+     */
+    protected boolean canRunEnterAnimationOnPlaceholder() {
+        return false;
+    }
+
+    /**
+     * Called when the content inflated in background is attached to the fragment view.
+     *
+     * @see #canInflateAsync()
+     */
+    protected void onContentViewCreated(@NonNull View content) {
+    }
+
+    /**
+     * Return a policy shared by the fragments to downgrade the transitions on low end devices,
+     * battery saver, thermal throttling or when the recent transitions dropped frames.
+     */
+    @Nullable
+    protected TransitionQualityPolicy getTransitionQualityPolicy() {
+        return null;
+    }
+
+    /**
+     * Return true to run the transition without animation. By default when the system animations
+     * are off (animator duration scale 0 or battery saver) or the state of the fragment manager
+     * is saved (commit allowing state loss while the host is stopped).
+     */
+    protected boolean canSkipAnimation() {
+        if (isStateSaved()) {
+            return true;
+        }
+        Context context = getContext();
+        return context != null && areSystemAnimationsDisabled(context);
+    }
+
     protected int getAnimationDuration() {
         return ANIMATION_DURATION;
     }
 
+    /**
+     * Add or replace the layers of an {@link AnimType#ANIMATION} transition without
+     * {@link AnimOptions#isPropertyAnimator()}, the builder holds the layers of its style and
+     * the fade and scale of the options. Return true when the layers were changed, the animation
+     * is then built for this transition instead of being taken from the pool.
+     */
+    protected boolean onComposeAnimation(@NonNull ComposedAnimation.Builder builder, @NonNull AnimOptions options, boolean enter) {
+        return false;
+    }
+
     /**
      * This function support for {@link CircularRevealAnimator} animator.<br/>
      * You can override to modify the initial position of anim.<br/>
@@ -311,26 +502,275 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
         return Color.argb(128, 0, 0, 0);
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // Internal area
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Skip the next exit animation, used by {@link ExtraTransaction} for intermediate entries.
+     * Cleared by the next transition of this fragment or when its view is destroyed.
+     */
+    void setSilentExit(boolean silentExit) {
+        this.mSilentExit = silentExit;
+    }
+
+    @LayoutRes
+    int getContentLayoutId() {
+        return mContentLayoutId;
+    }
+
+    /**
+     * View inflated by {@link FragmentPrefetcher}, used once by {@link #onCreateView}.
+     */
+    void setPrefetchedView(@Nullable View view) {
+        this.mPrefetchedView = view;
+    }
+
+    /**
+     * Timing of the navigation adding this fragment, set by {@link ExtraTransaction} until reported.
+     */
+    void setNavigationTiming(@Nullable NavigationTiming timing) {
+        this.mNavigationTiming = timing;
+    }
+
+    /**
+     * Pop animations of the transition adding this fragment, set by {@link ExtraTransaction}.
+     */
+    void setPopAnimations(int popEnter, int popExit) {
+        this.mPopEnterAnim = popEnter;
+        this.mPopExitAnim = popExit;
+    }
+
+    int getPopEnterAnim() {
+        return mPopEnterAnim;
+    }
+
+    int getPopExitAnim() {
+        return mPopExitAnim;
+    }
+
+    boolean hasChildBackStack() {
+        return mIExtraTransaction != null && mIExtraTransaction.getBackStackCount() > 0;
+    }
+
+    /**
+     * Show the pop transition of this fragment at the start of a back gesture, only for
+     * {@link AnimOptions} transitions that can be sought.
+     *
+     * @return false when there is nothing to preview, the back press then runs as usual
+     */
+    boolean startBackPreview(int nextAnim, boolean enter) {
+        View view = getView();
+        if (view == null || nextAnim >= 0 || mBackPreview != null || canSkipAnimation()) {
+            return false;
+        }
+        AnimExtras extras = createAnimExtras(nextAnim, enter);
+        extras.setAnimInfo(0, enter, nextAnim);
+        if (!extras.isSeekable()) {
+            AnimExtrasPool.release(extras);
+            return false;
+        }
+        // the fragment below is hidden in the back stack
+        if (view.getVisibility() != View.VISIBLE) {
+            mBackPreviewVisibility = view.getVisibility();
+            view.setVisibility(View.VISIBLE);
+        }
+        mBackPreview = extras;
+        mBackPreviewFraction = 0;
+        extras.seek(view, 0);
+        return true;
+    }
+
+    void seekBackPreview(float fraction) {
+        View view = getView();
+        if (mBackPreview != null && view != null) {
+            mBackPreviewFraction = fraction;
+            mBackPreview.seek(view, fraction);
+        }
+    }
+
+    boolean hasBackPreview() {
+        return mBackPreview != null;
+    }
+
+    /**
+     * @return duration of the back preview, from its {@link AnimOptions} when they set one
+     */
+    long getBackPreviewDuration() {
+        return mBackPreview != null ? mBackPreview.getDuration() : getAnimationDuration();
+    }
+
+    /**
+     * Show the view as it was before the back gesture.
+     */
+    void clearBackPreview() {
+        AnimExtras extras = mBackPreview;
+        if (extras == null) {
+            return;
+        }
+        mBackPreview = null;
+        View view = getView();
+        if (view != null) {
+            extras.clearSeek(view);
+            if (mBackPreviewVisibility >= 0) {
+                view.setVisibility(mBackPreviewVisibility);
+            }
+        }
+        mBackPreviewVisibility = -1;
+        AnimExtrasPool.release(extras);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // Private area
     ///////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Same bookkeeping as {@link #onAnimationStart(AnimExtras)} then {@link #onAnimationEnd(AnimExtras)}
+     * for a transition run without animation.
+     */
+    private void dispatchSkippedAnimation(int transit, boolean enter, int nextAnim) {
+        if (enter && mNavigationTiming != null) {
+            mNavigationTiming.markAnimationStart(transit, nextAnim);
+        }
+        updateAnimationElevation(enter);
+        setDisableFragmentTouch(false);
+        setFragmentOverlay(false, 0, 0);
+    }
+
+    /**
+     * The transition popping this fragment replaces the back preview in the same frame,
+     * it continues from the fraction where the gesture released it.
+     */
+    private float consumeBackPreview() {
+        if (mBackPreview == null) {
+            return 0;
+        }
+        float fraction = mBackPreviewFraction;
+        // the pop shows the view, its visibility is not restored
+        mBackPreviewVisibility = -1;
+        clearBackPreview();
+        return fraction;
+    }
+
+    /**
+     * Finish the transitions running in the container from their current progress.
+     */
+    private void endRunningTransition() {
+        View container = getParentView();
+        if (container != null) {
+            TransitionClock.endTransitions(container);
+        }
+        if (mAnimExtras != null) {
+            mAnimExtras.end();
+        }
+    }
+
+    private void updateAnimationElevation(boolean enter) {
+        int e = VIEW_ELEVATION;
+        View view = getView();
+        if (view == null) {
+            return;
+        }
+        boolean front = getPopDirection() != enter;
+        if (view.getParent() instanceof FragmentContainerLayout) {
+            // drawing order of the container, no elevation
+            FragmentContainerLayout layout = (FragmentContainerLayout) view.getParent();
+            if (front) {
+                layout.setFrontChild(view);
+            } else if (layout.getFrontChild() == view) {
+                layout.setFrontChild(null);
+            }
+            return;
+        }
+        view.setElevation(front ? e : -e);
+    }
+
+    private static boolean areSystemAnimationsDisabled(@NonNull Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            if (!ValueAnimator.areAnimatorsEnabled()) {
+                return true;
+            }
+        } else if (Settings.Global.getFloat(context.getContentResolver(), Settings.Global.ANIMATOR_DURATION_SCALE, 1.0f) == 0) {
+            return true;
+        }
+        PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return pm != null && pm.isPowerSaveMode();
+    }
+
+    /**
+     * The options data lives as long as the fragment, its view is cleared once the extras are built.
+     */
+    @NonNull
+    private AnimExtras createAnimExtras(int nextAnim, boolean enter) {
+        AnimOptionsData aod = createAnimOptionsData(nextAnim, enter);
+        AnimExtras extras = FragmentTransitionAnimFactory.create(aod, this::onComposeAnimation);
+        aod.setView(null);
+        return extras;
+    }
+
     @NonNull
     private AnimOptionsData createAnimOptionsData(int nextAnim, boolean enter) {
         AnimOptions options = AnimOptions.fromOptionsValue(nextAnim);
-        AnimOptionsData aod = new AnimOptionsData();
+        TransitionQualityPolicy policy = getTransitionQualityPolicy();
+        if (policy != null && getContext() != null) {
+            options = policy.apply(getContext(), options);
+        }
+        AnimOptionsData aod = mAnimOptionsData;
         aod.setOptions(options);
-        aod.setDuration(getAnimationDuration());
+        aod.setDuration(options.getDuration() > 0 ? options.getDuration() : getAnimationDuration());
         aod.setEnter(enter);
-        if (options.getAnimType() == AnimType.ANIMATOR) {
+        aod.setView(null);
+        aod.setCircularPosition(null);
+        aod.setContainerSize(0, 0);
+        if (options.getAnimType() == AnimType.ANIMATOR || options.isPropertyAnimator()) {
             aod.setView(getView());
-            if (options.getAnimStyle() == AnimatorStyle.CIRCULAR_REVEAL) {
+            View container = getParentView();
+            if (container != null) {
+                aod.setContainerSize(container.getWidth(), container.getHeight());
+            }
+            if (options.getAnimType() == AnimType.ANIMATOR && options.getAnimStyle() == AnimatorStyle.CIRCULAR_REVEAL) {
                 aod.setCircularPosition(getCircularPosition());
             }
         }
         return aod;
     }
 
+    /**
+     * The view keeps its ended animation and would drive it again on the next draw,
+     * it is cleared before the animation goes back to the pool. FragmentManager completes
+     * the transition on a posted message, recycling is posted after it.
+     */
+    private void recycleAnimExtras(@NonNull AnimExtras extras, @Nullable View view) {
+        post(() -> {
+            if (view != null && view.getAnimation() != null && view.getAnimation().hasEnded()) {
+                view.clearAnimation();
+            }
+            AnimExtrasPool.release(extras);
+        });
+    }
+
+    @NonNull
+    private View createAsyncContentView(@NonNull LayoutInflater inflater) {
+        FrameLayout placeholder = new FrameLayout(inflater.getContext());
+        mAsyncPlaceholder = placeholder;
+        boolean postpone = !canRunEnterAnimationOnPlaceholder();
+        if (postpone) {
+            postponeEnterTransition(ASYNC_INFLATE_TIMEOUT, TimeUnit.MILLISECONDS);
+        }
+        AsyncViewInflater.inflate(inflater, mContentLayoutId, placeholder, content -> {
+            if (mAsyncPlaceholder != placeholder) {
+                return; // view destroyed
+            }
+            mAsyncPlaceholder = null;
+            placeholder.addView(content);
+            onContentViewCreated(content);
+            if (postpone) {
+                startPostponedEnterTransition();
+            }
+        });
+        return placeholder;
+    }
+
     private boolean getPopDirection() {
         try {
             Method method = Fragment.class.getDeclaredMethod("getPopDirection");
@@ -345,52 +785,98 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
     /* ---------- Overlays ---------- */
     private View overlay;
     private View touchOverlay;
+    private FragmentContainerLayout scrimLayout;
+    private FragmentContainerLayout touchBlockLayout;
 
-    private void setFragmentOverlay(boolean show) {
+    private void setFragmentOverlay(boolean show, int intensity, long duration) {
         if (show) {
-            if (overlay == null) {
+            if (overlay == null && scrimLayout == null) {
                 View parentView = getParentView();
                 if (!(parentView instanceof ViewGroup)) {
                     return;
                 }
+                int color = getOverlayColor();
+                if (intensity > 0) {
+                    int alpha = 255 * intensity / AnimOptions.MAX_OVERLAY_INTENSITY;
+                    color = Color.argb(alpha, Color.red(color), Color.green(color), Color.blue(color));
+                }
+                if (parentView instanceof FragmentContainerLayout) {
+                    // drawn by the container, no view is added
+                    scrimLayout = (FragmentContainerLayout) parentView;
+                    scrimLayout.setScrimColor(color);
+                    TransitionClock.of(parentView).fadeOverlay(scrimLayout, scrimLayout::setScrimAlpha, !getPopDirection(), duration);
+                    return;
+                }
                 overlay = getOverlayByTag((ViewGroup) parentView, "Overlay", OVERLAY_VIEW_ELEVATION);
-                boolean isPop = getPopDirection();
-                overlay.setAlpha(isPop ? 1 : 0);
-                overlay.animate().alpha(isPop ? 0 : 1).start();
-                overlay.setBackgroundColor(getOverlayColor());
+                TransitionClock.of(parentView).fadeOverlay(overlay, !getPopDirection(), duration);
+                overlay.setBackgroundColor(color);
             }
         } else {
             if (overlay != null) {
-                removeInParent(overlay);
+                removeOverlay(overlay);
                 overlay = null;
             }
+            if (scrimLayout != null) {
+                removeScrim(scrimLayout);
+                scrimLayout = null;
+            }
         }
     }
 
     @SuppressLint("ClickableViewAccessibility")
     private void setDisableFragmentTouch(boolean disable) {
         if (disable) {
-            if (touchOverlay == null) {
+            if (touchOverlay == null && touchBlockLayout == null) {
                 View parentView = getParentView();
                 if (!(parentView instanceof ViewGroup)) {
                     return;
                 }
+                if (parentView instanceof FragmentContainerLayout) {
+                    touchBlockLayout = (FragmentContainerLayout) parentView;
+                    touchBlockLayout.blockTouch(this, layout -> {
+                        endRunningTransition();
+                        return true; // the touch goes to the settled views, as with the touch overlay
+                    });
+                    return;
+                }
                 touchOverlay = getOverlayByTag((ViewGroup) parentView, "TouchOverlay", DISABLE_TOUCH_OVERLAY_VIEW_ELEVATION);
-                touchOverlay.setOnTouchListener((v, event) -> true);
+                touchOverlay.setOnTouchListener((v, event) -> {
+                    if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+                        endRunningTransition();
+                    }
+                    return false; // the touch goes to the settled views below
+                });
             }
         } else {
+            if (touchBlockLayout != null) {
+                touchBlockLayout.unblockTouch(this);
+                touchBlockLayout = null;
+            }
             if (touchOverlay != null) {
-                removeInParent(touchOverlay);
+                // it can be dispatching the touch ending the transition, detach it after
+                View view = touchOverlay;
                 touchOverlay = null;
+                view.setTag(null);
+                view.setOnTouchListener(null);
+                view.setVisibility(View.GONE);
+                view.post(() -> removeInParent(view));
             }
         }
     }
 
     private void clearOverlay() {
-        removeInParent(overlay);
+        removeOverlay(overlay);
         removeInParent(touchOverlay);
+        if (scrimLayout != null) {
+            removeScrim(scrimLayout);
+        }
+        if (touchBlockLayout != null) {
+            touchBlockLayout.unblockTouch(this);
+        }
         overlay = null;
         touchOverlay = null;
+        scrimLayout = null;
+        touchBlockLayout = null;
     }
 
     @Nullable
@@ -405,6 +891,19 @@ public abstract class BaseFragment extends Fragment implements IBaseFragment, IB
         return overlay;
     }
 
+    private static void removeOverlay(View overlay) {
+        if (overlay != null && overlay.getParent() instanceof View) {
+            TransitionClock.of((View) overlay.getParent()).removeOverlay(overlay);
+        }
+        removeInParent(overlay);
+    }
+
+    private static void removeScrim(@NonNull FragmentContainerLayout layout) {
+        TransitionClock.of(layout).removeOverlay(layout);
+        layout.setScrimColor(Color.TRANSPARENT);
+        layout.setScrimAlpha(1.0f);
+    }
+
     private static void removeInParent(View view) {
         if (view != null && view.getParent() instanceof ViewGroup) {
             ((ViewGroup) view.getParent()).removeView(view);
@@ -0,0 +1,84 @@
+package com.mct.base.ui;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Navigation requested while the FragmentManager state is saved, replayed when the host
+ * is started again. Requests are collapsed when they are added:
+ * <ul>
+ *     <li>a pop cancels the pushes deferred right before it</li>
+ *     <li>clear back stack and replace-and-clear drop the deferred pushes and pops before them</li>
+ * </ul>
+ */
+final class DeferredNavigation {
+
+    private final List<NavigationOp> mOps = new ArrayList<>();
+
+    boolean isEmpty() {
+        return mOps.isEmpty();
+    }
+
+    void add(@NonNull NavigationOp op) {
+        switch (op.type) {
+            case NavigationOp.POP:
+                if (removeLastPush()) {
+                    return;
+                }
+                break;
+            case NavigationOp.POP_BY_AMOUNT:
+                while (op.value > 0 && removeLastPush()) {
+                    op.value--;
+                }
+                if (op.value <= 0) {
+                    return;
+                }
+                if (op.value == 1) {
+                    NavigationOp pop = NavigationOp.of(NavigationOp.POP);
+                    pop.requestTime = op.requestTime;
+                    op = pop;
+                }
+                break;
+            case NavigationOp.CLEAR_BACK_STACK:
+            case NavigationOp.REPLACE_AND_CLEAR:
+                while (!mOps.isEmpty() && isClearedBy(mOps.get(mOps.size() - 1))) {
+                    mOps.remove(mOps.size() - 1);
+                }
+                break;
+        }
+        mOps.add(op);
+    }
+
+    /**
+     * @return deferred operations in order, the queue is cleared
+     */
+    @NonNull
+    List<NavigationOp> drain() {
+        List<NavigationOp> ops = new ArrayList<>(mOps);
+        mOps.clear();
+        return ops;
+    }
+
+    void clear() {
+        mOps.clear();
+    }
+
+    private boolean removeLastPush() {
+        if (!mOps.isEmpty() && isPush(mOps.get(mOps.size() - 1))) {
+            mOps.remove(mOps.size() - 1);
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isPush(@NonNull NavigationOp op) {
+        return op.type == NavigationOp.ADD_TO_STACK || op.type == NavigationOp.REPLACE_TO_STACK;
+    }
+
+    private static boolean isClearedBy(@NonNull NavigationOp op) {
+        return isPush(op) || op.isPop();
+    }
+
+}
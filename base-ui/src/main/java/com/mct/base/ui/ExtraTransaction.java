@@ -1,29 +1,88 @@
 package com.mct.base.ui;
 
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.savedstate.SavedStateRegistry;
+import androidx.savedstate.SavedStateRegistryOwner;
 
+import com.mct.base.ui.core.IBackStackEntry;
 import com.mct.base.ui.core.IExtraTransaction;
 import com.mct.base.ui.core.IKeyboardManager;
+import com.mct.base.ui.core.INavigationTiming;
 import com.mct.base.ui.transition.FragmentTransition;
 import com.mct.base.ui.transition.FragmentTransitionFactory;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 class ExtraTransaction implements IExtraTransaction {
 
     private static final int FLAG_INCLUSIVE = FragmentManager.POP_BACK_STACK_INCLUSIVE;
+    private static final String NAMED_BACK_STACKS_KEY = "com.mct.base.ui.ExtraTransaction.named_back_stacks:";
+    private static final int MAX_LIVE_INACTIVE_STACKS = 1;
 
     private final int mContainerId;
     private final FragmentManager mFragmentManager;
     private final IKeyboardManager mKeyboardManager;
+    private final LifecycleOwner mHost;
+    private final NavigationQueue mNavigationQueue;
+    private final BackStackIndex mBackStackIndex;
+    private final List<OnBackStackChangedListener> mBackStackListeners = new CopyOnWriteArrayList<>();
+    private final List<OnNavigationTimingListener> mTimingListeners = new CopyOnWriteArrayList<>();
+    private final Map<Fragment, NavigationTiming> mPendingTimings = new HashMap<>();
+    private final TimingCallbacks mTimingCallbacks = new TimingCallbacks();
+    private final DeferredNavigation mDeferredNavigation = new DeferredNavigation();
+    private final LifecycleEventObserver mHostObserver = this::onHostStateChanged;
+    private FragmentPrefetcher mPrefetcher;
+    private NamedBackStacks mNamedBackStacks;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Set<Fragment> mPendingViewDestroy = new HashSet<>();
+    private final PendingExecution mPendingExecution = new PendingExecution(new PendingExecution.Scheduler() {
+        @Override
+        public void post(@NonNull Runnable runnable) {
+            mHandler.post(runnable);
+        }
+
+        @Override
+        public void removeCallbacks(@NonNull Runnable runnable) {
+            mHandler.removeCallbacks(runnable);
+        }
+    }, this::onAfterExecution);
+
+    private volatile boolean mQueueEnabled;
+    private int mMaxRetainedViews = UNLIMITED_RETAINED_VIEWS;
+    private Lifecycle.State mHiddenMaxLifecycle = Lifecycle.State.STARTED;
+    private boolean mBatching;
+    private boolean mBatchDirty;
+    private FragmentTransaction mBatchTransaction;
+    private Fragment mBatchTop;
 
-    public ExtraTransaction(int mContainerId, FragmentManager mFragmentManager, IKeyboardManager mKeyboardManager) {
+    public ExtraTransaction(int mContainerId, FragmentManager mFragmentManager, IKeyboardManager mKeyboardManager, LifecycleOwner mHost) {
         this.mContainerId = mContainerId;
         this.mFragmentManager = mFragmentManager;
         this.mKeyboardManager = mKeyboardManager;
+        this.mHost = mHost;
+        this.mNavigationQueue = new NavigationQueue(this::executeBatch);
+        this.mBackStackIndex = new BackStackIndex(mFragmentManager, this::onBackStackIndexChanged);
+        this.mFragmentManager.addOnBackStackChangedListener(mBackStackIndex);
     }
 
     @Override
@@ -43,17 +102,161 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public Fragment getCurrentFragment() {
+        // roots of inactive named back stacks stay hidden in the container
+        List<Fragment> fragments = mFragmentManager.getFragments();
+        for (int i = fragments.size() - 1; i >= 0; i--) {
+            Fragment fragment = fragments.get(i);
+            if (fragment.getId() == mContainerId && !fragment.isHidden()) {
+                return fragment;
+            }
+        }
         return mFragmentManager.findFragmentById(mContainerId);
     }
 
+    @Nullable
+    @Override
+    public Fragment getPreviousFragment(@NonNull Fragment fragment) {
+        List<Fragment> fragments = mFragmentManager.getFragments();
+        for (int i = fragments.indexOf(fragment) - 1; i >= 0; i--) {
+            Fragment previous = fragments.get(i);
+            if (previous.getId() == mContainerId && !isInactiveStackRoot(previous)) {
+                return previous;
+            }
+        }
+        return null;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T extends Fragment> T findFragmentByTag(Class<T> targetFragment) {
-        try {
-            return (T) mFragmentManager.findFragmentByTag(targetFragment.getName());
-        } catch (Throwable t) {
-            return null;
+        IBackStackEntry entry = mBackStackIndex.findLast(targetFragment);
+        if (entry != null) {
+            Fragment fragment = mBackStackIndex.findFragment(entry);
+            if (fragment != null && fragment.getClass() == targetFragment) {
+                return (T) fragment;
+            }
+        }
+        // fragments added without back stack
+        List<Fragment> fragments = mFragmentManager.getFragments();
+        for (int i = fragments.size() - 1; i >= 0; i--) {
+            Fragment fragment = fragments.get(i);
+            if (fragment.getClass() == targetFragment && fragment.getId() == mContainerId) {
+                return (T) fragment;
+            }
+        }
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public List<IBackStackEntry> getBackStackEntries() {
+        return mBackStackIndex.snapshot();
+    }
+
+    @Override
+    public void addOnBackStackChangedListener(@NonNull OnBackStackChangedListener listener) {
+        mBackStackListeners.add(listener);
+    }
+
+    @Override
+    public void removeOnBackStackChangedListener(@NonNull OnBackStackChangedListener listener) {
+        mBackStackListeners.remove(listener);
+    }
+
+    @Override
+    public void addOnNavigationTimingListener(@NonNull OnNavigationTimingListener listener) {
+        if (mTimingListeners.isEmpty()) {
+            mFragmentManager.registerFragmentLifecycleCallbacks(mTimingCallbacks, false);
+        }
+        mTimingListeners.add(listener);
+    }
+
+    @Override
+    public void removeOnNavigationTimingListener(@NonNull OnNavigationTimingListener listener) {
+        if (mTimingListeners.remove(listener) && mTimingListeners.isEmpty()) {
+            mFragmentManager.unregisterFragmentLifecycleCallbacks(mTimingCallbacks);
+            mPendingTimings.clear();
+        }
+    }
+
+    @Override
+    public void setNavigationQueueEnabled(boolean enabled) {
+        mQueueEnabled = enabled;
+        if (!enabled && Looper.myLooper() == Looper.getMainLooper()) {
+            mNavigationQueue.flush();
+        }
+    }
+
+    @Override
+    public boolean isNavigationQueueEnabled() {
+        return mQueueEnabled;
+    }
+
+    @Override
+    public void setMaxRetainedViews(int count) {
+        mMaxRetainedViews = count < 0 ? UNLIMITED_RETAINED_VIEWS : count;
+    }
+
+    @Override
+    public int getMaxRetainedViews() {
+        return mMaxRetainedViews;
+    }
+
+    @Override
+    public void setHiddenMaxLifecycle(@NonNull Lifecycle.State state) {
+        if (!state.isAtLeast(Lifecycle.State.CREATED)) {
+            throw new IllegalArgumentException("Hidden max lifecycle must be at least CREATED.");
+        }
+        mHiddenMaxLifecycle = state;
+    }
+
+    @NonNull
+    @Override
+    public Lifecycle.State getHiddenMaxLifecycle() {
+        return mHiddenMaxLifecycle;
+    }
+
+    @Override
+    public void ensureFragmentView(@NonNull Fragment fragment) {
+        if (fragment.getView() != null || fragment.getParentFragmentManager() != mFragmentManager) {
+            return;
+        }
+        if (!fragment.isAdded() || fragment.isRemoving()) {
+            return;
+        }
+        Lifecycle.State state = mHiddenMaxLifecycle.isAtLeast(Lifecycle.State.STARTED)
+                ? mHiddenMaxLifecycle
+                : Lifecycle.State.STARTED;
+        mFragmentManager.beginTransaction()
+                .setMaxLifecycle(fragment, state)
+                .commitNowAllowingStateLoss();
+    }
+
+    @Override
+    public void prefetch(@NonNull Class<? extends Fragment> fragmentClass, @Nullable Bundle args) {
+        if (mPrefetcher == null) {
+            Context context = getHostContext();
+            if (context == null) {
+                return;
+            }
+            mPrefetcher = new FragmentPrefetcher(context, mFragmentManager, mHost);
         }
+        mPrefetcher.prefetch(fragmentClass, args);
+    }
+
+    @Override
+    public void switchBackStack(@NonNull String name, @NonNull Fragment root) {
+        NavigationOp op = NavigationOp.of(NavigationOp.SWITCH_BACK_STACK);
+        op.name = name;
+        op.fragment = root;
+        dispatch(op);
+    }
+
+    @Nullable
+    @Override
+    public String getCurrentBackStackName() {
+        NamedBackStacks stacks = getNamedBackStacks(false);
+        return stacks != null ? stacks.getCurrent() : null;
     }
 
     @Override
@@ -63,11 +266,7 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void addFragment(Fragment fragment, @NonNull FragmentTransition transition) {
-        performHideSoftInput();
-        FragmentTransaction transaction = mFragmentManager.beginTransaction();
-        transition.applyTransition(transaction);
-        transaction.add(mContainerId, fragment, fragment.getClass().getName());
-        transaction.commitAllowingStateLoss();
+        dispatch(NavigationOp.of(NavigationOp.ADD, fragment, transition));
     }
 
     @Override
@@ -77,15 +276,7 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void addFragmentToStack(Fragment fragment, @NonNull FragmentTransition transition) {
-        performHideSoftInput();
-        FragmentTransaction transaction = mFragmentManager.beginTransaction();
-        transition.applyTransition(transaction);
-        if (getCurrentFragment() != null) {
-            transaction.hide(getCurrentFragment());
-        }
-        transaction.add(mContainerId, fragment, fragment.getClass().getName());
-        transaction.addToBackStack(fragment.getClass().getName());
-        transaction.commitAllowingStateLoss();
+        dispatch(NavigationOp.of(NavigationOp.ADD_TO_STACK, fragment, transition));
     }
 
     @Override
@@ -95,20 +286,7 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void replaceFragment(Fragment fragment, @NonNull FragmentTransition transition) {
-        if (isCurrentFragmentInBackStack()) {
-            popFragment(transition.couldPopImmediate());
-            replaceFragmentToStack(fragment, transition);
-            return;
-        }
-        replaceRootFragment(fragment, transition);
-    }
-
-    private void replaceRootFragment(Fragment fragment, @NonNull FragmentTransition transition) {
-        performHideSoftInput();
-        FragmentTransaction transaction = mFragmentManager.beginTransaction();
-        transition.applyTransition(transaction);
-        transaction.replace(mContainerId, fragment, fragment.getClass().getName());
-        transaction.commitAllowingStateLoss();
+        dispatch(NavigationOp.of(NavigationOp.REPLACE, fragment, transition));
     }
 
     @Override
@@ -118,12 +296,7 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void replaceFragmentToStack(Fragment fragment, @NonNull FragmentTransition transition) {
-        performHideSoftInput();
-        FragmentTransaction transaction = mFragmentManager.beginTransaction();
-        transition.applyTransition(transaction);
-        transaction.replace(mContainerId, fragment, fragment.getClass().getName());
-        transaction.addToBackStack(fragment.getClass().getName());
-        transaction.commitAllowingStateLoss();
+        dispatch(NavigationOp.of(NavigationOp.REPLACE_TO_STACK, fragment, transition));
     }
 
     @Override
@@ -133,8 +306,7 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void replaceAndClearBackStack(Fragment fragment, @NonNull FragmentTransition transition) {
-        clearBackStack(transition.couldPopImmediate());
-        replaceRootFragment(fragment, transition);
+        dispatch(NavigationOp.of(NavigationOp.REPLACE_AND_CLEAR, fragment, transition));
     }
 
     @Override
@@ -144,16 +316,9 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void clearBackStack(boolean immediate) {
-        performHideSoftInput();
-        allowStateLoss(() -> {
-            if (getBackStackCount() > 0) {
-                if (immediate) {
-                    mFragmentManager.popBackStackImmediate(null, FLAG_INCLUSIVE);
-                } else {
-                    mFragmentManager.popBackStack(null, FLAG_INCLUSIVE);
-                }
-            }
-        });
+        NavigationOp op = NavigationOp.of(NavigationOp.CLEAR_BACK_STACK);
+        op.flag = immediate;
+        dispatch(op);
     }
 
     @Override
@@ -163,42 +328,23 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void popFragment(boolean immediate) {
-        performHideSoftInput();
-        allowStateLoss(() -> {
-            if (immediate) {
-                mFragmentManager.popBackStackImmediate();
-            } else {
-                mFragmentManager.popBackStack();
-            }
-        });
+        NavigationOp op = NavigationOp.of(NavigationOp.POP);
+        op.flag = immediate;
+        dispatch(op);
     }
 
     @Override
     public void popFragmentToPosition(int position) {
-        int count = getBackStackCount();
-        if (count == 0 || position >= count) {
-            return;
-        }
-        performHideSoftInput();
-        allowStateLoss(() -> {
-            int targetIndex = Math.max(0, position);
-            int id = mFragmentManager.getBackStackEntryAt(targetIndex).getId();
-            mFragmentManager.popBackStack(id, FLAG_INCLUSIVE);
-        });
+        NavigationOp op = NavigationOp.of(NavigationOp.POP_TO_POSITION);
+        op.value = position;
+        dispatch(op);
     }
 
     @Override
     public void popFragmentByAmount(int amount) {
-        int count = getBackStackCount();
-        if (count == 0 || amount <= 0) {
-            return;
-        }
-        performHideSoftInput();
-        allowStateLoss(() -> {
-            int targetIndex = Math.max(0, count - amount);
-            int targetId = mFragmentManager.getBackStackEntryAt(targetIndex).getId();
-            mFragmentManager.popBackStack(targetId, FLAG_INCLUSIVE);
-        });
+        NavigationOp op = NavigationOp.of(NavigationOp.POP_BY_AMOUNT);
+        op.value = amount;
+        dispatch(op);
     }
 
     @Override
@@ -208,94 +354,743 @@ class ExtraTransaction implements IExtraTransaction {
 
     @Override
     public void popFragmentTo(@NonNull Class<? extends Fragment> targetFragment, boolean includeTargetFragment) {
+        NavigationOp op = NavigationOp.of(NavigationOp.POP_TO);
+        op.target = targetFragment;
+        op.flag = includeTargetFragment;
+        dispatch(op);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Dispatch area
+    ///////////////////////////////////////////////////////////////////////////
+
+    private void dispatch(@NonNull NavigationOp op) {
+        if (!mTimingListeners.isEmpty()) {
+            op.requestTime = System.nanoTime();
+        }
+        if (mQueueEnabled) {
+            mNavigationQueue.enqueue(op);
+            return;
+        }
+        performHideSoftInput();
+        execute(op);
+    }
+
+    /**
+     * Run all queued operations of this frame, consecutive operations without back stack
+     * are merged into one reordering-allowed transaction.
+     */
+    private void executeBatch(@NonNull NavigationQueue queue) {
+        mBatching = true;
+        try {
+            NavigationOp op;
+            while ((op = queue.poll()) != null) {
+                execute(op);
+            }
+            flushBatch();
+        } finally {
+            endBatch();
+        }
         performHideSoftInput();
-        allowStateLoss(() -> {
-            int flag = includeTargetFragment ? FLAG_INCLUSIVE : 0;
-            mFragmentManager.popBackStack(targetFragment.getName(), flag);
+    }
+
+    private void execute(@NonNull NavigationOp op) {
+        if (mFragmentManager.isStateSaved()) {
+            defer(op);
+            return;
+        }
+        if (!mDeferredNavigation.isEmpty()) {
+            replayDeferred();
+        }
+        if (op.fragment != null && !mTimingListeners.isEmpty()) {
+            startTiming(op);
+        }
+        if (op.fragment instanceof BaseFragment && mPrefetcher != null) {
+            ((BaseFragment) op.fragment).setPrefetchedView(mPrefetcher.take(op.fragment));
+        }
+        if (op.fragment instanceof BaseFragment && op.transition != null) {
+            ((BaseFragment) op.fragment).setPopAnimations(op.transition.getPopEnterAnim(), op.transition.getPopExitAnim());
+        }
+        endRunningTransitions();
+        // @formatter:off
+        switch (op.type) {
+            case NavigationOp.ADD:                  doAddFragment(op.fragment, op.transition);              break;
+            case NavigationOp.ADD_TO_STACK:         doAddFragmentToStack(op.fragment, op.transition);       break;
+            case NavigationOp.REPLACE:              doReplaceFragment(op.fragment, op.transition);          break;
+            case NavigationOp.REPLACE_TO_STACK:     doReplaceFragmentToStack(op.fragment, op.transition);   break;
+            case NavigationOp.REPLACE_AND_CLEAR:    doReplaceAndClearBackStack(op.fragment, op.transition); break;
+            case NavigationOp.CLEAR_BACK_STACK:     doClearBackStack(op.flag);                              break;
+            case NavigationOp.POP:                  doPopFragment(op.flag);                                 break;
+            case NavigationOp.POP_TO_POSITION:      doPopFragmentToPosition(op.value);                      break;
+            case NavigationOp.POP_BY_AMOUNT:        doPopFragmentByAmount(op.value);                        break;
+            case NavigationOp.POP_TO:               doPopFragmentTo(op.target, op.flag);                    break;
+            case NavigationOp.SWITCH_BACK_STACK:    doSwitchBackStack(op.name, op.fragment);                break;
+        }
+        // @formatter:on
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Operation area
+    ///////////////////////////////////////////////////////////////////////////
+
+    private void doAddFragment(Fragment fragment, @NonNull FragmentTransition transition) {
+        FragmentTransaction transaction = beginTransaction(false);
+        transition.applyTransition(transaction);
+        transaction.add(mContainerId, fragment, createTag(fragment));
+        commitTransaction(transaction, fragment);
+    }
+
+    private void doAddFragmentToStack(Fragment fragment, @NonNull FragmentTransition transition) {
+        Fragment currentFragment = resolveCurrentFragment();
+        FragmentTransaction transaction = beginTransaction(true);
+        transition.applyTransition(transaction);
+        if (currentFragment != null) {
+            transaction.hide(currentFragment);
+            capHiddenFragments(transaction, currentFragment);
+        }
+        String tag = createTag(fragment);
+        BackStackIndex.prepare(fragment);
+        transaction.add(mContainerId, fragment, tag);
+        transaction.addToBackStack(tag);
+        commitTransaction(transaction, fragment);
+    }
+
+    /**
+     * Pop and replace are committed together, FragmentManager executes them
+     * as one reordered operation so the fragment below is never shown again.
+     */
+    private void doReplaceFragment(Fragment fragment, @NonNull FragmentTransition transition) {
+        syncBatch();
+        if (isCurrentFragmentInBackStack()) {
+            doPopFragment(false);
+            doReplaceFragmentToStack(fragment, transition);
+            return;
+        }
+        doReplaceRootFragment(fragment, transition);
+    }
+
+    private void doReplaceRootFragment(Fragment fragment, @NonNull FragmentTransition transition) {
+        FragmentTransaction transaction = beginTransaction(false);
+        transition.applyTransition(transaction);
+        transaction.replace(mContainerId, fragment, createTag(fragment));
+        commitTransaction(transaction, fragment);
+    }
+
+    private void doReplaceFragmentToStack(Fragment fragment, @NonNull FragmentTransition transition) {
+        FragmentTransaction transaction = beginTransaction(true);
+        transition.applyTransition(transaction);
+        String tag = createTag(fragment);
+        BackStackIndex.prepare(fragment);
+        transaction.replace(mContainerId, fragment, tag);
+        transaction.addToBackStack(tag);
+        commitTransaction(transaction, fragment);
+    }
+
+    private void doReplaceAndClearBackStack(Fragment fragment, @NonNull FragmentTransition transition) {
+        doClearBackStack(false);
+        doReplaceRootFragment(fragment, transition);
+    }
+
+    private void doClearBackStack(boolean immediate) {
+        syncBatch();
+        if (getBackStackCount() > 0) {
+            popBackStack(null, FLAG_INCLUSIVE, immediate);
+        }
+        notifyBatchPopped();
+    }
+
+    private void doPopFragment(boolean immediate) {
+        flushBatch();
+        popBackStack(null, 0, immediate);
+        notifyBatchPopped();
+    }
+
+    private void doPopFragmentToPosition(int position) {
+        syncBatch();
+        IBackStackEntry entry = mBackStackIndex.getAt(Math.max(0, position));
+        if (entry == null) {
+            return;
+        }
+        popBackStack(entry, FLAG_INCLUSIVE, false);
+        notifyBatchPopped();
+    }
+
+    private void doPopFragmentByAmount(int amount) {
+        syncBatch();
+        int count = mBackStackIndex.size();
+        if (count == 0 || amount <= 0) {
+            return;
+        }
+        IBackStackEntry entry = mBackStackIndex.getAt(Math.max(0, count - amount));
+        popBackStack(entry, FLAG_INCLUSIVE, false);
+        notifyBatchPopped();
+    }
+
+    private void doPopFragmentTo(@NonNull Class<? extends Fragment> targetFragment, boolean includeTargetFragment) {
+        syncBatch();
+        IBackStackEntry entry = mBackStackIndex.findLast(targetFragment);
+        if (entry == null) {
+            return;
+        }
+        popBackStack(entry, includeTargetFragment ? FLAG_INCLUSIVE : 0, false);
+        notifyBatchPopped();
+    }
+
+    /**
+     * Every pop goes through here: the hidden fragments leaving with the popped entries are
+     * silenced, each of them clears its flag when its own transition is created.
+     *
+     * @param entry last entry popped, null for the top entry (or all of them with {@link FragmentManager#POP_BACK_STACK_INCLUSIVE})
+     */
+    private void popBackStack(@Nullable IBackStackEntry entry, int flags, boolean immediate) {
+        silenceHiddenFragments();
+        mPendingExecution.commit(() -> {
+            if (entry == null && immediate) {
+                mFragmentManager.popBackStackImmediate(null, flags);
+            } else if (entry == null) {
+                mFragmentManager.popBackStack(null, flags);
+            } else if (immediate) {
+                mFragmentManager.popBackStackImmediate(entry.getId(), flags);
+            } else {
+                mFragmentManager.popBackStack(entry.getId(), flags);
+            }
         });
     }
 
+    /**
+     * The entries of the current stack are saved by FragmentManager, its root is hidden and
+     * the root of the target stack is shown (or added), then the saved entries of the target
+     * stack are restored. Only the root of the previous stack keeps its view.<br/>
+     * The first switch registers the stack used so far as {@link #DEFAULT_BACK_STACK}.
+     */
+    private void doSwitchBackStack(@NonNull String name, @NonNull Fragment root) {
+        flushBatch();
+        mFragmentManager.executePendingTransactions();
+        notifyBatchPopped();
+
+        NamedBackStacks stacks = getNamedBackStacks(true);
+        String currentName = stacks.getCurrent();
+        if (name.equals(currentName)) {
+            dropTiming(root);
+            return;
+        }
+        if (currentName == null && name.equals(DEFAULT_BACK_STACK)) {
+            // opt in before pushing, the entries get unique names and can all be saved
+            Fragment defaultRoot = getCurrentFragment();
+            if (defaultRoot == null) {
+                defaultRoot = root;
+                FragmentTransaction transaction = mFragmentManager.beginTransaction();
+                transaction.setReorderingAllowed(true);
+                transaction.add(mContainerId, root, BackStackIndex.createUniqueTag(root));
+                transaction.commitAllowingStateLoss();
+            } else {
+                dropTiming(root);
+            }
+            stacks.addDefault(defaultRoot.getTag());
+            return;
+        }
+        NamedBackStacks.Stack from = currentName != null ? stacks.get(currentName) : null;
+        NamedBackStacks.Stack to = stacks.get(name);
+
+        String savedEntryName = saveBackStack();
+        if (currentName == null) {
+            // first switch, the stack used so far becomes the default stack
+            mFragmentManager.executePendingTransactions();
+            Fragment defaultRoot = getCurrentFragment();
+            if (defaultRoot != null || savedEntryName != null) {
+                from = stacks.addDefault(defaultRoot != null ? defaultRoot.getTag() : null);
+            }
+        }
+        if (from != null) {
+            from.savedEntryName = savedEntryName;
+        }
+
+        FragmentTransaction transaction = mFragmentManager.beginTransaction();
+        transaction.setReorderingAllowed(true);
+        Fragment fromRoot = from != null ? findStackRoot(from) : null;
+        if (fromRoot != null) {
+            transaction.hide(fromRoot);
+            capLifecycle(transaction, fromRoot, mHiddenMaxLifecycle);
+        }
+        Fragment toRoot = to != null ? findStackRoot(to) : null;
+        if (toRoot != null) {
+            transaction.show(toRoot);
+            transaction.setMaxLifecycle(toRoot, Lifecycle.State.RESUMED);
+            dropTiming(root);
+        } else {
+            to = new NamedBackStacks.Stack(name, BackStackIndex.createUniqueTag(root));
+            transaction.add(mContainerId, root, to.rootTag);
+        }
+        // least recently used first, the most recent inactive stacks keep their root view
+        int liveInactive = 0;
+        List<Fragment> inactiveRoots = new ArrayList<>();
+        for (NamedBackStacks.Stack stack : stacks.stacks()) {
+            if (stack != to && stack != from) {
+                Fragment inactiveRoot = findStackRoot(stack);
+                if (inactiveRoot != null) {
+                    inactiveRoots.add(inactiveRoot);
+                }
+            }
+        }
+        if (fromRoot != null) {
+            inactiveRoots.add(fromRoot);
+        }
+        for (int i = inactiveRoots.size() - 1; i >= 0; i--) {
+            Fragment inactiveRoot = inactiveRoots.get(i);
+            if (++liveInactive > MAX_LIVE_INACTIVE_STACKS && inactiveRoot.getView() != null) {
+                transaction.setMaxLifecycle(inactiveRoot, Lifecycle.State.CREATED);
+            }
+        }
+        transaction.commitAllowingStateLoss();
+
+        if (to.savedEntryName != null) {
+            mFragmentManager.restoreBackStack(to.savedEntryName);
+            to.savedEntryName = null;
+        }
+        stacks.setCurrent(to);
+    }
+
+    /**
+     * Save the entries of the current stack.
+     *
+     * @return name restoring the saved entries, null if there is none
+     * @throws IllegalStateException when the name of the first entry cannot save them all
+     *                               (entries pushed under class names before the first switch)
+     */
+    @Nullable
+    private String saveBackStack() {
+        List<IBackStackEntry> entries = mBackStackIndex.snapshot();
+        if (entries.isEmpty()) {
+            return null;
+        }
+        List<String> entryNames = new ArrayList<>(entries.size());
+        for (IBackStackEntry entry : entries) {
+            entryNames.add(entry.getName());
+        }
+        String savedEntryName = NamedBackStacks.findSavedEntryName(entryNames);
+        if (savedEntryName == null) {
+            throw new IllegalStateException("Cannot save the back stack " + entryNames
+                    + ", its first entry name is reused above it. Call switchBackStack("
+                    + "DEFAULT_BACK_STACK, root) before pushing fragments to use named back stacks.");
+        }
+        mFragmentManager.saveBackStack(savedEntryName);
+        return savedEntryName;
+    }
+
+    @Nullable
+    private Fragment findStackRoot(@NonNull NamedBackStacks.Stack stack) {
+        return stack.rootTag != null ? mFragmentManager.findFragmentByTag(stack.rootTag) : null;
+    }
+
+    /**
+     * The named back stacks of a container are shared by the transactions of the same host,
+     * through the provider registered by the first one.
+     *
+     * @param create false to only find the stacks already used (or restored) for this container
+     */
+    @Nullable
+    private NamedBackStacks getNamedBackStacks(boolean create) {
+        if (mNamedBackStacks != null) {
+            return mNamedBackStacks;
+        }
+        SavedStateRegistry registry = mHost instanceof SavedStateRegistryOwner
+                ? ((SavedStateRegistryOwner) mHost).getSavedStateRegistry()
+                : null;
+        String key = NAMED_BACK_STACKS_KEY + mContainerId;
+        if (registry != null) {
+            SavedStateRegistry.SavedStateProvider provider = registry.getSavedStateProvider(key);
+            if (provider instanceof NamedBackStacks) {
+                mNamedBackStacks = (NamedBackStacks) provider;
+                return mNamedBackStacks;
+            }
+        }
+        Bundle restored = registry != null && registry.isRestored() ? registry.consumeRestoredStateForKey(key) : null;
+        if (restored == null && !create) {
+            return null;
+        }
+        mNamedBackStacks = new NamedBackStacks();
+        mNamedBackStacks.restore(restored);
+        if (registry != null) {
+            registry.registerSavedStateProvider(key, mNamedBackStacks);
+        }
+        return mNamedBackStacks;
+    }
+
+    /**
+     * Class name tags, unique tags once named back stacks are used: a stack is saved from the
+     * name of its first entry, which must not be reused above it.
+     */
+    @NonNull
+    private String createTag(@NonNull Fragment fragment) {
+        return getNamedBackStacks(false) != null
+                ? BackStackIndex.createUniqueTag(fragment)
+                : BackStackIndex.createTag(fragment);
+    }
+
+    private boolean isInactiveStackRoot(@NonNull Fragment fragment) {
+        NamedBackStacks stacks = getNamedBackStacks(false);
+        return stacks != null && stacks.isInactiveRoot(fragment.getTag());
+    }
+
     private boolean isCurrentFragmentInBackStack() {
         Fragment currentFragment = getCurrentFragment();
-        if (currentFragment == null) {
+        IBackStackEntry top = mBackStackIndex.getTop();
+        if (currentFragment == null || top == null) {
             return false;
         }
-        int backStackCount = getBackStackCount();
-        if (getBackStackCount() > 0) {
-            String topTag = mFragmentManager.getBackStackEntryAt(backStackCount - 1).getName();
-            String currentTag = currentFragment.getTag();
-            return topTag != null && topTag.equals(currentTag);
+        Fragment topFragment = mBackStackIndex.findFragment(top);
+        if (topFragment != null) {
+            return topFragment == currentFragment;
         }
-        return false;
+        return top.getName() != null && top.getName().equals(currentFragment.getTag());
     }
 
-    private void performHideSoftInput() {
-        mKeyboardManager.hideSoftInput(200);
+    private void onBackStackIndexChanged(@NonNull BackStackIndex index) {
+        if (mBackStackListeners.isEmpty()) {
+            return;
+        }
+        List<IBackStackEntry> entries = index.snapshot();
+        for (OnBackStackChangedListener listener : mBackStackListeners) {
+            listener.onBackStackChanged(entries);
+        }
     }
 
-    private void allowStateLoss(Runnable runnable) {
-        FragmentManager fm = mFragmentManager;
-        if (fm.isStateSaved()) {
-            try {
-                boolean tempStateSaved = FragmentManagerMagician.isStateSaved(fm);
-                boolean tempStopped = FragmentManagerMagician.isStopped(fm);
-                FragmentManagerMagician.setStateSaved(fm, false);
-                FragmentManagerMagician.setStopped(fm, false);
+    ///////////////////////////////////////////////////////////////////////////
+    // Deferred area
+    ///////////////////////////////////////////////////////////////////////////
 
-                runnable.run();
+    /**
+     * FragmentManager does not accept pops after the state is saved, and transactions committed
+     * allowing state loss would run while the host is stopped. Operations are kept until
+     * the host is started again.
+     */
+    private void defer(@NonNull NavigationOp op) {
+        if (mHost.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        if (mDeferredNavigation.isEmpty()) {
+            mHost.getLifecycle().addObserver(mHostObserver);
+        }
+        mDeferredNavigation.add(op);
+    }
 
-                FragmentManagerMagician.setStateSaved(fm, tempStateSaved);
-                FragmentManagerMagician.setStopped(fm, tempStopped);
-            } catch (IllegalAccessException ignored) {
-                runnable.run();
+    private void replayDeferred() {
+        mHost.getLifecycle().removeObserver(mHostObserver);
+        boolean batching = mBatching;
+        mBatching = true;
+        try {
+            for (NavigationOp op : mDeferredNavigation.drain()) {
+                execute(op);
+            }
+            if (!batching) {
+                flushBatch();
+            }
+        } finally {
+            if (!batching) {
+                endBatch();
             }
-        } else {
-            runnable.run();
         }
     }
 
-    private static class FragmentManagerMagician {
+    private void onHostStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_START) {
+            if (!mFragmentManager.isStateSaved() && !mDeferredNavigation.isEmpty()) {
+                replayDeferred();
+                performHideSoftInput();
+            }
+        } else if (event == Lifecycle.Event.ON_DESTROY) {
+            source.getLifecycle().removeObserver(mHostObserver);
+            mDeferredNavigation.clear();
+        }
+    }
 
-        private static Field mStateSavedField;
-        private static Field mStoppedField;
+    /**
+     * A navigation arriving while a transition runs starts from its end state instead of
+     * waiting for it or being dropped.
+     */
+    private void endRunningTransitions() {
+        Fragment current = getCurrentFragment();
+        View view = current != null ? current.getView() : null;
+        if (view != null && view.getParent() instanceof View) {
+            TransitionClock.endTransitions((View) view.getParent());
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Timing area
+    ///////////////////////////////////////////////////////////////////////////
+
+    private void startTiming(@NonNull NavigationOp op) {
+        Fragment fragment = op.fragment;
+        NavigationTiming timing = new NavigationTiming(op.getName(),
+                fragment.getClass().getName(), op.requestTime, System.nanoTime());
+        mPendingTimings.put(fragment, timing);
+        if (fragment instanceof BaseFragment) {
+            ((BaseFragment) fragment).setNavigationTiming(timing);
+        }
+    }
+
+    private void finishTiming(@NonNull Fragment fragment, @NonNull NavigationTiming timing) {
+        if (mPendingTimings.remove(fragment) != timing) {
+            return;
+        }
+        if (fragment instanceof BaseFragment) {
+            ((BaseFragment) fragment).setNavigationTiming(null);
+        }
+        for (OnNavigationTimingListener listener : mTimingListeners) {
+            listener.onNavigationTiming(timing);
+        }
+    }
+
+    private void dropTiming(@NonNull Fragment fragment) {
+        if (mPendingTimings.remove(fragment) != null && fragment instanceof BaseFragment) {
+            ((BaseFragment) fragment).setNavigationTiming(null);
+        }
+    }
 
-        static {
-            try {
-                mStateSavedField = FragmentManager.class.getDeclaredField("mStateSaved");
-                mStateSavedField.setAccessible(true);
-                mStoppedField = FragmentManager.class.getDeclaredField("mStopped");
-                mStoppedField.setAccessible(true);
-            } catch (NoSuchFieldException e) {
-                mStateSavedField = null;
-                mStoppedField = null;
+    private class TimingCallbacks extends FragmentManager.FragmentLifecycleCallbacks {
+
+        @Override
+        public void onFragmentPreAttached(@NonNull FragmentManager fm, @NonNull Fragment f, @NonNull Context context) {
+            NavigationTiming timing = mPendingTimings.get(f);
+            if (timing != null) {
+                timing.markAttached();
             }
         }
 
-        static boolean isStateSaved(FragmentManager fm) throws IllegalAccessException {
-            if (mStateSavedField == null) {
-                return false;
+        @Override
+        public void onFragmentViewCreated(@NonNull FragmentManager fm, @NonNull Fragment f, @NonNull View v, @Nullable Bundle savedInstanceState) {
+            NavigationTiming timing = mPendingTimings.get(f);
+            if (timing == null || timing.isFirstDrawn()) {
+                return;
             }
-            return (Boolean) mStateSavedField.get(fm);
+            timing.markAttached();
+            timing.markViewCreated();
+            v.getViewTreeObserver().addOnDrawListener(new FirstDrawListener(f, v, timing));
+        }
+
+        @Override
+        public void onFragmentViewDestroyed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+            dropTiming(f);
+        }
+
+        @Override
+        public void onFragmentDestroyed(@NonNull FragmentManager fm, @NonNull Fragment f) {
+            dropTiming(f);
+        }
+    }
+
+    /**
+     * Listeners cannot be removed while dispatching onDraw, the report is posted after the frame,
+     * when the enter animation has started.
+     */
+    private class FirstDrawListener implements ViewTreeObserver.OnDrawListener, Runnable {
+
+        private final Fragment mFragment;
+        private final View mView;
+        private final NavigationTiming mTiming;
+
+        FirstDrawListener(Fragment fragment, View view, NavigationTiming timing) {
+            this.mFragment = fragment;
+            this.mView = view;
+            this.mTiming = timing;
         }
 
-        static boolean isStopped(FragmentManager fm) throws IllegalAccessException {
-            if (mStoppedField == null) {
-                return false;
+        @Override
+        public void onDraw() {
+            if (mTiming.isFirstDrawn()) {
+                return;
             }
-            return (Boolean) mStoppedField.get(fm);
+            mTiming.markFirstDraw();
+            mHandler.post(this);
         }
 
-        static void setStateSaved(FragmentManager fm, boolean stateSaved) throws IllegalAccessException {
-            if (mStateSavedField != null) {
-                mStateSavedField.set(fm, stateSaved);
+        @Override
+        public void run() {
+            mView.getViewTreeObserver().removeOnDrawListener(this);
+            finishTiming(mFragment, mTiming);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Batch area
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * While batching, transactions without back stack share one transaction until
+     * a back stack transaction or a pop breaks the sequence.
+     */
+    @NonNull
+    private FragmentTransaction beginTransaction(boolean addToBackStack) {
+        if (mBatching) {
+            if (!addToBackStack && mBatchTransaction != null) {
+                return mBatchTransaction;
             }
+            flushBatch();
+        }
+        FragmentTransaction transaction = mFragmentManager.beginTransaction();
+        transaction.setReorderingAllowed(true);
+        if (mBatching && !addToBackStack) {
+            mBatchTransaction = transaction;
         }
+        return transaction;
+    }
 
-        static void setStopped(FragmentManager fm, boolean stopped) throws IllegalAccessException {
-            if (mStoppedField != null) {
-                mStoppedField.set(fm, stopped);
+    private void commitTransaction(@NonNull FragmentTransaction transaction, Fragment top) {
+        if (mBatching) {
+            mBatchTop = top;
+            mBatchDirty = true;
+            if (transaction == mBatchTransaction) {
+                return;
             }
         }
+        mPendingExecution.commit(() -> mBackStackIndex.bind(transaction.commitAllowingStateLoss(), top));
+    }
+
+    private void flushBatch() {
+        if (mBatchTransaction != null) {
+            FragmentTransaction transaction = mBatchTransaction;
+            mBatchTransaction = null;
+            mPendingExecution.commit(transaction::commitAllowingStateLoss);
+        }
+    }
+
+    /**
+     * Execute what was committed in this batch, for operations that read the back stack.
+     */
+    private void syncBatch() {
+        if (mBatching && mBatchDirty) {
+            flushBatch();
+            mFragmentManager.executePendingTransactions();
+            mBatchDirty = false;
+            mBatchTop = null;
+        }
+    }
+
+    private void endBatch() {
+        mBatching = false;
+        mBatchTransaction = null;
+        mBatchTop = null;
+        mBatchDirty = false;
+    }
+
+    private void notifyBatchPopped() {
+        if (mBatching) {
+            mBatchTop = null;
+            mBatchDirty = true;
+        }
+    }
+
+    @Nullable
+    private Fragment resolveCurrentFragment() {
+        if (mBatching) {
+            if (mBatchTop != null) {
+                return mBatchTop;
+            }
+            syncBatch();
+        }
+        return getCurrentFragment();
+    }
+
+    /**
+     * Cap the lifecycle of hidden entries in the same back stack record, so popping the record
+     * restores the previous max state. The fragment being hidden drops to
+     * {@link #mHiddenMaxLifecycle}, entries deeper than {@link #mMaxRetainedViews} drop to CREATED
+     * (view state saved and view destroyed).
+     */
+    private void capHiddenFragments(@NonNull FragmentTransaction transaction, @NonNull Fragment current) {
+        List<Fragment> fragments = mFragmentManager.getFragments();
+        int depth = 0;
+        boolean currentCapped = false;
+        for (int i = fragments.size() - 1; i >= 0; i--) {
+            Fragment fragment = fragments.get(i);
+            if (fragment.getId() != mContainerId || (fragment != current && !fragment.isHidden())
+                    || isInactiveStackRoot(fragment)) {
+                continue;
+            }
+            depth++;
+            if (fragment == current) {
+                currentCapped = true;
+            }
+            if (mMaxRetainedViews == UNLIMITED_RETAINED_VIEWS || depth <= mMaxRetainedViews) {
+                if (fragment == current) {
+                    capLifecycle(transaction, fragment, mHiddenMaxLifecycle);
+                }
+                if (mMaxRetainedViews == UNLIMITED_RETAINED_VIEWS) {
+                    break;
+                }
+                continue;
+            }
+            if (fragment.getView() == null || mPendingViewDestroy.contains(fragment)) {
+                continue;
+            }
+            if (fragment instanceof BaseFragment && !((BaseFragment) fragment).canDestroyViewWhenHidden()) {
+                if (fragment == current) {
+                    capLifecycle(transaction, fragment, mHiddenMaxLifecycle);
+                }
+                continue;
+            }
+            transaction.setMaxLifecycle(fragment, Lifecycle.State.CREATED);
+            mPendingViewDestroy.add(fragment);
+        }
+        if (!currentCapped) {
+            // current fragment is still pending in this batch
+            capLifecycle(transaction, current, mHiddenMaxLifecycle);
+        }
+    }
+
+    private static void capLifecycle(@NonNull FragmentTransaction transaction,
+                                     @NonNull Fragment fragment,
+                                     @NonNull Lifecycle.State state) {
+        if (state == Lifecycle.State.RESUMED) {
+            return;
+        }
+        if (fragment instanceof BaseFragment && !((BaseFragment) fragment).canCapLifecycleWhenHidden()) {
+            return;
+        }
+        transaction.setMaxLifecycle(fragment, state);
+    }
+
+    /**
+     * Hidden fragments only leave the container as intermediate entries of a multiple pop,
+     * they are dropped without exit animation. The flag is cleared by the fragment itself from
+     * its next {@code onCreateAnimation} or {@code onDestroyView}, a postponed transition
+     * still finds it.
+     */
+    private void silenceHiddenFragments() {
+        for (Fragment fragment : mFragmentManager.getFragments()) {
+            if (fragment instanceof BaseFragment && fragment.getId() == mContainerId && fragment.isHidden()
+                    && !isInactiveStackRoot(fragment)) {
+                ((BaseFragment) fragment).setSilentExit(true);
+            }
+        }
+    }
+
+    /**
+     * Posted by {@link #mPendingExecution} after a commit or a pop, it has been executed.
+     */
+    private void onAfterExecution() {
+        mPendingViewDestroy.clear();
+    }
+
+    private void performHideSoftInput() {
+        mKeyboardManager.hideSoftInput(200);
+    }
+
+    /**
+     * @return context of the host, of the current fragment when the host is neither
+     * a fragment nor a context
+     */
+    @Nullable
+    private Context getHostContext() {
+        if (mHost instanceof Fragment) {
+            return ((Fragment) mHost).getContext();
+        }
+        if (mHost instanceof Context) {
+            return (Context) mHost;
+        }
+        Fragment current = getCurrentFragment();
+        return current != null ? current.getContext() : null;
     }
 
 }
@@ -0,0 +1,193 @@
+package com.mct.base.ui;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Bundle;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Inflate the content layout of the next screen while the main thread is idle.<br/>
+ * One request is inflated per idle pass. Prepared views are kept in a small LRU cache,
+ * matched by fragment class and arguments, and dropped on configuration change.
+ * Only {@link BaseFragment} created with a content layout id can be prefetched.
+ */
+final class FragmentPrefetcher implements MessageQueue.IdleHandler, ComponentCallbacks, LifecycleEventObserver {
+
+    private static final int MAX_PREFETCHED = 3;
+
+    private final Context mContext;
+    private final FragmentManager mFragmentManager;
+    private final LifecycleOwner mHost;
+    private final FrameLayout mParent;
+    private final Deque<Prefetched> mRequests = new ArrayDeque<>();
+    private final List<Prefetched> mPrefetched = new ArrayList<>(MAX_PREFETCHED);
+    private boolean mIdleScheduled;
+    private boolean mRegistered;
+
+    FragmentPrefetcher(@NonNull Context context, @NonNull FragmentManager fragmentManager, @NonNull LifecycleOwner host) {
+        this.mContext = context;
+        this.mFragmentManager = fragmentManager;
+        this.mHost = host;
+        this.mParent = new FrameLayout(context);
+    }
+
+    void prefetch(@NonNull Class<? extends Fragment> fragmentClass, @Nullable Bundle args) {
+        if (mHost.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            return;
+        }
+        String className = fragmentClass.getName();
+        if (indexOf(mPrefetched, className, args) >= 0 || indexOf(mRequests, className, args) >= 0) {
+            return;
+        }
+        mRequests.offer(new Prefetched(className, args));
+        if (!mRegistered) {
+            mRegistered = true;
+            mContext.registerComponentCallbacks(this);
+            mHost.getLifecycle().addObserver(this);
+        }
+        if (!mIdleScheduled) {
+            mIdleScheduled = true;
+            Looper.getMainLooper().getQueue().addIdleHandler(this);
+        }
+    }
+
+    /**
+     * @return the prepared view for this fragment, it is removed from the cache
+     */
+    @Nullable
+    View take(@NonNull Fragment fragment) {
+        if (mPrefetched.isEmpty()) {
+            return null;
+        }
+        int index = indexOf(mPrefetched, fragment.getClass().getName(), fragment.getArguments());
+        if (index < 0) {
+            return null;
+        }
+        View view = mPrefetched.remove(index).view;
+        return view != null && view.getParent() == null ? view : null;
+    }
+
+    @Override
+    public boolean queueIdle() {
+        Prefetched request = mRequests.poll();
+        if (request != null) {
+            inflate(request);
+        }
+        mIdleScheduled = !mRequests.isEmpty();
+        return mIdleScheduled;
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull Configuration newConfig) {
+        mPrefetched.clear();
+    }
+
+    @Override
+    public void onLowMemory() {
+        mPrefetched.clear();
+    }
+
+    @Override
+    public void onStateChanged(@NonNull LifecycleOwner source, @NonNull Lifecycle.Event event) {
+        if (event == Lifecycle.Event.ON_DESTROY) {
+            mRequests.clear();
+            mPrefetched.clear();
+            if (mIdleScheduled) {
+                mIdleScheduled = false;
+                Looper.getMainLooper().getQueue().removeIdleHandler(this);
+            }
+            mRegistered = false;
+            mContext.unregisterComponentCallbacks(this);
+            source.getLifecycle().removeObserver(this);
+        }
+    }
+
+    private void inflate(@NonNull Prefetched request) {
+        try {
+            Fragment fragment = mFragmentManager.getFragmentFactory()
+                    .instantiate(mContext.getClassLoader(), request.className);
+            if (!(fragment instanceof BaseFragment)) {
+                return;
+            }
+            int layoutId = ((BaseFragment) fragment).getContentLayoutId();
+            if (layoutId == 0) {
+                return;
+            }
+            request.view = LayoutInflater.from(mContext).inflate(layoutId, mParent, false);
+        } catch (Exception ignored) {
+            // prefetch is best effort, the fragment inflates its own view
+            return;
+        }
+        if (mPrefetched.size() >= MAX_PREFETCHED) {
+            mPrefetched.remove(0);
+        }
+        mPrefetched.add(request);
+    }
+
+    private static int indexOf(@NonNull Iterable<Prefetched> items, @NonNull String className, @Nullable Bundle args) {
+        int index = 0;
+        for (Prefetched item : items) {
+            if (item.className.equals(className) && bundleEquals(item.args, args)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static boolean bundleEquals(@Nullable Bundle a, @Nullable Bundle b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return a == null ? b.isEmpty() : a.isEmpty();
+        }
+        if (a.size() != b.size() || !a.keySet().equals(b.keySet())) {
+            return false;
+        }
+        for (String key : a.keySet()) {
+            Object va = a.get(key);
+            Object vb = b.get(key);
+            if (va instanceof Bundle && vb instanceof Bundle) {
+                if (!bundleEquals((Bundle) va, (Bundle) vb)) {
+                    return false;
+                }
+            } else if (!Objects.deepEquals(va, vb)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Prefetched {
+        final String className;
+        final Bundle args;
+        View view;
+
+        Prefetched(String className, Bundle args) {
+            this.className = className;
+            this.args = args == null ? null : new Bundle(args);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.mct.base.ui;
+
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.savedstate.SavedStateRegistry;
+
+import com.mct.base.ui.core.IExtraTransaction;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of the named back stacks of a container, in least to most recently used order.<br/>
+ * Each stack has a root fragment added outside the FragmentManager back stack, and the name of
+ * its first back stack entry while its entries are saved by {@code FragmentManager.saveBackStack}.
+ * The stack used before the first switch becomes {@link IExtraTransaction#DEFAULT_BACK_STACK}.
+ */
+final class NamedBackStacks implements SavedStateRegistry.SavedStateProvider {
+
+    private static final String KEY_NAMES = "names";
+    private static final String KEY_ROOT_TAGS = "root_tags";
+    private static final String KEY_SAVED_ENTRIES = "saved_entries";
+    private static final String KEY_CURRENT = "current";
+
+    private final Map<String, Stack> mStacks = new LinkedHashMap<>(8, 0.75f, true);
+    private String mCurrent;
+
+    @Nullable
+    String getCurrent() {
+        return mCurrent;
+    }
+
+    void setCurrent(@NonNull Stack stack) {
+        mStacks.put(stack.name, stack);
+        mCurrent = stack.name;
+    }
+
+    /**
+     * Register the stack used before the first switch as the current stack.
+     *
+     * @param rootTag tag of the fragment shown once its entries are saved, null without root
+     */
+    @NonNull
+    Stack addDefault(@Nullable String rootTag) {
+        Stack stack = new Stack(IExtraTransaction.DEFAULT_BACK_STACK, rootTag);
+        setCurrent(stack);
+        return stack;
+    }
+
+    @Nullable
+    Stack get(@NonNull String name) {
+        // do not use get(), it changes the access order
+        for (Stack stack : mStacks.values()) {
+            if (stack.name.equals(name)) {
+                return stack;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return stacks from the least recently used one
+     */
+    @NonNull
+    Iterable<Stack> stacks() {
+        return mStacks.values();
+    }
+
+    boolean isInactiveRoot(@Nullable String tag) {
+        if (tag == null) {
+            return false;
+        }
+        for (Stack stack : mStacks.values()) {
+            if (tag.equals(stack.rootTag)) {
+                return !stack.name.equals(mCurrent);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code FragmentManager.saveBackStack(name)} saves from the top most entry with this name,
+     * down to the first entry when the entries between have the same name.
+     *
+     * @param entryNames names of the back stack entries, bottom first
+     * @return name saving all the entries, null when the name of the first entry is reused above
+     */
+    @Nullable
+    static String findSavedEntryName(@NonNull List<String> entryNames) {
+        if (entryNames.isEmpty() || entryNames.get(0) == null) {
+            return null;
+        }
+        String name = entryNames.get(0);
+        int top = entryNames.lastIndexOf(name);
+        for (int i = 1; i < top; i++) {
+            if (!name.equals(entryNames.get(i))) {
+                return null;
+            }
+        }
+        return name;
+    }
+
+    @NonNull
+    @Override
+    public Bundle saveState() {
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<String> rootTags = new ArrayList<>();
+        ArrayList<String> savedEntries = new ArrayList<>();
+        for (Stack stack : mStacks.values()) {
+            names.add(stack.name);
+            rootTags.add(stack.rootTag);
+            savedEntries.add(stack.savedEntryName);
+        }
+        Bundle bundle = new Bundle();
+        bundle.putStringArrayList(KEY_NAMES, names);
+        bundle.putStringArrayList(KEY_ROOT_TAGS, rootTags);
+        bundle.putStringArrayList(KEY_SAVED_ENTRIES, savedEntries);
+        bundle.putString(KEY_CURRENT, mCurrent);
+        return bundle;
+    }
+
+    void restore(@Nullable Bundle bundle) {
+        if (bundle == null) {
+            return;
+        }
+        ArrayList<String> names = bundle.getStringArrayList(KEY_NAMES);
+        ArrayList<String> rootTags = bundle.getStringArrayList(KEY_ROOT_TAGS);
+        ArrayList<String> savedEntries = bundle.getStringArrayList(KEY_SAVED_ENTRIES);
+        if (names == null || rootTags == null || savedEntries == null) {
+            return;
+        }
+        mStacks.clear();
+        for (int i = 0; i < names.size(); i++) {
+            Stack stack = new Stack(names.get(i), rootTags.get(i));
+            stack.savedEntryName = savedEntries.get(i);
+            mStacks.put(stack.name, stack);
+        }
+        mCurrent = bundle.getString(KEY_CURRENT);
+    }
+
+    static final class Stack {
+        final String name;
+        @Nullable
+        final String rootTag;
+        String savedEntryName;
+
+        Stack(@NonNull String name, @Nullable String rootTag) {
+            this.name = name;
+            this.rootTag = rootTag;
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.mct.base.ui;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.NonNull;
+import androidx.fragment.app.Fragment;
+
+import com.mct.base.ui.core.INavigationTiming;
+import com.mct.base.ui.transition.FragmentTransition;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * A navigation request of {@link ExtraTransaction}, recorded so it can be queued.
+ */
+final class NavigationOp {
+
+    // @formatter:off
+    static final int ADD                    = 0;
+    static final int ADD_TO_STACK           = 1;
+    static final int REPLACE                = 2;
+    static final int REPLACE_TO_STACK       = 3;
+    static final int REPLACE_AND_CLEAR      = 4;
+    static final int CLEAR_BACK_STACK       = 5;
+    static final int POP                    = 6;
+    static final int POP_TO_POSITION        = 7;
+    static final int POP_BY_AMOUNT          = 8;
+    static final int POP_TO                 = 9;
+    static final int SWITCH_BACK_STACK      = 10;
+    // @formatter:on
+
+    @IntDef({ADD, ADD_TO_STACK, REPLACE, REPLACE_TO_STACK, REPLACE_AND_CLEAR,
+            CLEAR_BACK_STACK, POP, POP_TO_POSITION, POP_BY_AMOUNT, POP_TO, SWITCH_BACK_STACK})
+    @Retention(RetentionPolicy.SOURCE)
+    @interface Type {
+    }
+
+    @Type
+    final int type;
+    Fragment fragment;
+    FragmentTransition transition;
+    Class<? extends Fragment> target;
+    String name;
+    int value;
+    boolean flag;
+    long requestTime = INavigationTiming.NOT_REACHED;
+
+    private NavigationOp(@Type int type) {
+        this.type = type;
+    }
+
+    @NonNull
+    static NavigationOp of(@Type int type) {
+        return new NavigationOp(type);
+    }
+
+    @NonNull
+    static NavigationOp of(@Type int type, Fragment fragment, FragmentTransition transition) {
+        NavigationOp op = new NavigationOp(type);
+        op.fragment = fragment;
+        op.transition = transition;
+        return op;
+    }
+
+    @NonNull
+    String getName() {
+        // @formatter:off
+        switch (type) {
+            case ADD:               return "ADD";
+            case ADD_TO_STACK:      return "ADD_TO_STACK";
+            case REPLACE:           return "REPLACE";
+            case REPLACE_TO_STACK:  return "REPLACE_TO_STACK";
+            case REPLACE_AND_CLEAR: return "REPLACE_AND_CLEAR";
+            case CLEAR_BACK_STACK:  return "CLEAR_BACK_STACK";
+            case POP:               return "POP";
+            case POP_TO_POSITION:   return "POP_TO_POSITION";
+            case POP_BY_AMOUNT:     return "POP_BY_AMOUNT";
+            case POP_TO:            return "POP_TO";
+            case SWITCH_BACK_STACK: return "SWITCH_BACK_STACK";
+            default:                return "UNKNOWN";
+        }
+        // @formatter:on
+    }
+
+    boolean isPop() {
+        return type == CLEAR_BACK_STACK || type == POP || type == POP_TO_POSITION
+                || type == POP_BY_AMOUNT || type == POP_TO;
+    }
+
+}
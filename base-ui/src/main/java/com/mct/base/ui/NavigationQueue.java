@@ -0,0 +1,66 @@
+package com.mct.base.ui;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Multi-producer navigation queue.<br/>
+ * Operations can be offered from any thread, they are drained once per frame on the main thread.
+ */
+final class NavigationQueue implements Choreographer.FrameCallback {
+
+    private final Queue<NavigationOp> mOps = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mScheduleRunnable = () -> Choreographer.getInstance().postFrameCallback(this);
+    private final Callback mCallback;
+
+    NavigationQueue(@NonNull Callback callback) {
+        this.mCallback = callback;
+    }
+
+    void enqueue(@NonNull NavigationOp op) {
+        mOps.offer(op);
+        if (mScheduled.compareAndSet(false, true)) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                mScheduleRunnable.run();
+            } else {
+                mMainHandler.post(mScheduleRunnable);
+            }
+        }
+    }
+
+    @Nullable
+    NavigationOp poll() {
+        return mOps.poll();
+    }
+
+    /**
+     * Drain immediately, must be called on main thread.
+     */
+    void flush() {
+        if (!mOps.isEmpty()) {
+            mCallback.onBatch(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        // reset before draining, so operations offered while draining schedule the next frame
+        mScheduled.set(false);
+        flush();
+    }
+
+    interface Callback {
+        void onBatch(@NonNull NavigationQueue queue);
+    }
+
+}
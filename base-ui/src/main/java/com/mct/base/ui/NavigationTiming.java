@@ -0,0 +1,140 @@
+package com.mct.base.ui;
+
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.core.INavigationTiming;
+
+/**
+ * Timestamps of one navigation, filled by {@link ExtraTransaction} and {@link BaseFragment}.
+ */
+final class NavigationTiming implements INavigationTiming {
+
+    private final String mOperation;
+    private final String mFragmentClassName;
+    private final long mRequestTime;
+    private final long mCommitTime;
+    private long mAttachTime = NOT_REACHED;
+    private long mViewCreatedTime = NOT_REACHED;
+    private long mAnimationStartTime = NOT_REACHED;
+    private long mFirstDrawTime = NOT_REACHED;
+    private int mTransit;
+    private int mAnimValue;
+
+    NavigationTiming(@NonNull String operation, @NonNull String fragmentClassName, long requestTime, long commitTime) {
+        this.mOperation = operation;
+        this.mFragmentClassName = fragmentClassName;
+        this.mRequestTime = requestTime == NOT_REACHED ? commitTime : requestTime;
+        this.mCommitTime = commitTime;
+    }
+
+    void markAttached() {
+        if (mAttachTime == NOT_REACHED) {
+            mAttachTime = System.nanoTime();
+        }
+    }
+
+    void markViewCreated() {
+        mViewCreatedTime = System.nanoTime();
+    }
+
+    void markAnimationStart(int transit, int animValue) {
+        if (mAnimationStartTime == NOT_REACHED) {
+            mAnimationStartTime = System.nanoTime();
+            mTransit = transit;
+            mAnimValue = animValue;
+        }
+    }
+
+    void markFirstDraw() {
+        if (mFirstDrawTime == NOT_REACHED) {
+            mFirstDrawTime = System.nanoTime();
+        }
+    }
+
+    boolean isFirstDrawn() {
+        return mFirstDrawTime != NOT_REACHED;
+    }
+
+    @NonNull
+    @Override
+    public String getOperation() {
+        return mOperation;
+    }
+
+    @NonNull
+    @Override
+    public String getFragmentClassName() {
+        return mFragmentClassName;
+    }
+
+    @Override
+    public int getTransit() {
+        return mTransit;
+    }
+
+    @Override
+    public int getAnimValue() {
+        return mAnimValue;
+    }
+
+    @Override
+    public long getRequestTime() {
+        return mRequestTime;
+    }
+
+    @Override
+    public long getQueueDuration() {
+        return between(mRequestTime, mCommitTime);
+    }
+
+    @Override
+    public long getExecuteDuration() {
+        return between(mCommitTime, mAttachTime);
+    }
+
+    @Override
+    public long getCreateViewDuration() {
+        return between(mAttachTime, mViewCreatedTime);
+    }
+
+    @Override
+    public long getAnimationStartDelay() {
+        return between(mViewCreatedTime, mAnimationStartTime);
+    }
+
+    @Override
+    public long getFirstDrawDuration() {
+        return between(mViewCreatedTime, mFirstDrawTime);
+    }
+
+    @Override
+    public long getTotalDuration() {
+        return between(mRequestTime, mFirstDrawTime);
+    }
+
+    private static long between(long start, long end) {
+        if (start == NOT_REACHED || end == NOT_REACHED) {
+            return NOT_REACHED;
+        }
+        return Math.max(0, end - start);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "NavigationTiming{" + mOperation + " " + mFragmentClassName
+                + ", anim=" + mAnimValue
+                + ", queue=" + toMillis(getQueueDuration())
+                + ", execute=" + toMillis(getExecuteDuration())
+                + ", createView=" + toMillis(getCreateViewDuration())
+                + ", animationStart=" + toMillis(getAnimationStartDelay())
+                + ", firstDraw=" + toMillis(getFirstDrawDuration())
+                + ", total=" + toMillis(getTotalDuration()) + "}";
+    }
+
+    @NonNull
+    private static String toMillis(long nanos) {
+        return nanos == NOT_REACHED ? "-" : (nanos / 1000) / 1000f + "ms";
+    }
+
+}
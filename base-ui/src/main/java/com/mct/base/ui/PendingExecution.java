@@ -0,0 +1,35 @@
+package com.mct.base.ui;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Release state kept for transactions until FragmentManager has executed them.<br/>
+ * A commit or a pop posts the execution of the pending transactions on the main thread, the
+ * release is posted once the commit has returned so it always runs after this execution.
+ */
+final class PendingExecution {
+
+    private final Scheduler mScheduler;
+    private final Runnable mRelease;
+
+    PendingExecution(@NonNull Scheduler scheduler, @NonNull Runnable release) {
+        this.mScheduler = scheduler;
+        this.mRelease = release;
+    }
+
+    /**
+     * Run the commit or the pop, then schedule the release after its execution.
+     */
+    void commit(@NonNull Runnable commit) {
+        commit.run();
+        mScheduler.removeCallbacks(mRelease);
+        mScheduler.post(mRelease);
+    }
+
+    interface Scheduler {
+        void post(@NonNull Runnable runnable);
+
+        void removeCallbacks(@NonNull Runnable runnable);
+    }
+
+}
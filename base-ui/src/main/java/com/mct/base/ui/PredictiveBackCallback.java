@@ -0,0 +1,145 @@
+package com.mct.base.ui;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
+
+import androidx.activity.BackEventCompat;
+import androidx.activity.OnBackPressedCallback;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+
+/**
+ * Drive the pop transition of the activity container with the predictive back gesture.<br/>
+ * FragmentManager transitions cannot be sought, the pop animations of the current and the
+ * previous fragments are previewed while the gesture moves, the pop then runs from the
+ * released progress. Always enabled, the fragments and the activity can handle the back press
+ * without back stack (child back stacks, {@link BaseActivity#onHandleBackPressed()}), an
+ * unhandled press goes to the other callbacks or finishes the activity.
+ */
+final class PredictiveBackCallback extends OnBackPressedCallback {
+
+    private final BaseActivity mActivity;
+    private BaseFragment mExitPreview;
+    private BaseFragment mEnterPreview;
+    private ValueAnimator mCancelAnimator;
+    private float mProgress;
+
+    PredictiveBackCallback(@NonNull BaseActivity activity) {
+        super(true);
+        this.mActivity = activity;
+    }
+
+    @Override
+    public void handleOnBackStarted(@NonNull BackEventCompat backEvent) {
+        endCancelAnimation();
+        clearPreviews();
+        mProgress = 0;
+        if (mActivity.extraTransaction().getBackStackCount() == 0) {
+            // nothing to pop, the back press is handled by the fragment or the activity
+            return;
+        }
+        Fragment current = mActivity.extraTransaction().getCurrentFragment();
+        if (!(current instanceof BaseFragment)) {
+            return;
+        }
+        BaseFragment exit = (BaseFragment) current;
+        if (exit.hasChildBackStack() || exit.getPopExitAnim() == 0) {
+            // the back press pops a child fragment, or the pop is not animated
+            return;
+        }
+        if (exit.startBackPreview(exit.getPopExitAnim(), false)) {
+            mExitPreview = exit;
+        }
+        Fragment previous = mActivity.extraTransaction().getPreviousFragment(current);
+        if (previous instanceof BaseFragment
+                && ((BaseFragment) previous).startBackPreview(exit.getPopEnterAnim(), true)) {
+            mEnterPreview = (BaseFragment) previous;
+        }
+    }
+
+    @Override
+    public void handleOnBackProgressed(@NonNull BackEventCompat backEvent) {
+        seek(backEvent.getProgress());
+    }
+
+    @Override
+    public void handleOnBackPressed() {
+        if (mCancelAnimator != null) {
+            // a key press while the previous gesture goes back
+            endCancelAnimation();
+        }
+        if (!mActivity.dispatchBackPressed()) {
+            setEnabled(false);
+            mActivity.getOnBackPressedDispatcher().onBackPressed();
+            setEnabled(true);
+        }
+        if (mExitPreview != null || mEnterPreview != null) {
+            // the pop consumes the previews, the ones left were not popped (e.g. the fragment handled the press)
+            mActivity.post(() -> {
+                if (!hasPreview(mExitPreview)) {
+                    mExitPreview = null;
+                }
+                if (!hasPreview(mEnterPreview)) {
+                    mEnterPreview = null;
+                }
+                handleOnBackCancelled();
+            });
+        }
+    }
+
+    @Override
+    public void handleOnBackCancelled() {
+        if (mExitPreview == null && mEnterPreview == null) {
+            return;
+        }
+        BaseFragment fragment = mExitPreview != null ? mExitPreview : mEnterPreview;
+        long duration = (long) (mProgress * fragment.getBackPreviewDuration());
+        endCancelAnimation();
+        mCancelAnimator = ValueAnimator.ofFloat(mProgress, 0);
+        mCancelAnimator.setDuration(duration);
+        mCancelAnimator.addUpdateListener(animation -> seek((float) animation.getAnimatedValue()));
+        mCancelAnimator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                clearPreviews();
+            }
+        });
+        mCancelAnimator.start();
+    }
+
+    private void seek(float progress) {
+        mProgress = progress;
+        if (mExitPreview != null) {
+            mExitPreview.seekBackPreview(progress);
+        }
+        if (mEnterPreview != null) {
+            mEnterPreview.seekBackPreview(progress);
+        }
+    }
+
+    private void endCancelAnimation() {
+        if (mCancelAnimator != null) {
+            ValueAnimator animator = mCancelAnimator;
+            mCancelAnimator = null;
+            animator.end();
+        }
+    }
+
+    private void clearPreviews() {
+        if (mExitPreview != null) {
+            mExitPreview.clearBackPreview();
+            mExitPreview = null;
+        }
+        if (mEnterPreview != null) {
+            mEnterPreview.clearBackPreview();
+            mEnterPreview = null;
+        }
+    }
+
+    private static boolean hasPreview(@Nullable BaseFragment fragment) {
+        return fragment != null && fragment.hasBackPreview();
+    }
+
+}
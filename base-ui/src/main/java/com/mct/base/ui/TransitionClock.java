@@ -0,0 +1,191 @@
+package com.mct.base.ui;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Animation;
+import android.view.animation.Interpolator;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.UiThread;
+
+import com.mct.base.ui.transition.options.AnimExtras;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clock of the transitions of one fragment container, main thread only.<br/>
+ * Animations created for the same navigation (enter and exit) get the same start time, the
+ * time of the first frame after they are created, so they stay frame aligned. The overlay
+ * alpha is computed from this start time in the same frame callback, no separate animator.<br/>
+ * The clock is kept as a tag of the container, it goes away with the container.
+ */
+@UiThread
+final class TransitionClock implements Choreographer.FrameCallback {
+
+    private static final long NOT_STARTED = -1;
+    private static final Interpolator OVERLAY_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    private final List<AnimExtras> mTransitions = new ArrayList<>(2);
+    private final List<AnimExtras> mPendingAnimations = new ArrayList<>(2);
+    private final List<Overlay> mOverlays = new ArrayList<>(1);
+    private long mPendingDuration;
+    private long mStartTime = NOT_STARTED;
+    private long mDuration;
+    private boolean mScheduled;
+
+    @NonNull
+    static TransitionClock of(@NonNull View container) {
+        TransitionClock clock = (TransitionClock) container.getTag(R.id.base_ui_transition_clock);
+        if (clock == null) {
+            clock = new TransitionClock();
+            container.setTag(R.id.base_ui_transition_clock, clock);
+        }
+        return clock;
+    }
+
+    /**
+     * End the transitions running in this container, if any.
+     *
+     * @see #endTransitions()
+     */
+    static void endTransitions(@NonNull View container) {
+        TransitionClock clock = (TransitionClock) container.getTag(R.id.base_ui_transition_clock);
+        if (clock != null) {
+            clock.endTransitions();
+        }
+    }
+
+    /**
+     * Start the animation on the next frame, with the other animations started before it.
+     * Animators are started by the FragmentManager in the same pass and share the frame time.
+     */
+    void start(@NonNull AnimExtras extras) {
+        mTransitions.add(extras);
+        Animation animation = extras.animation;
+        if (animation == null) {
+            return;
+        }
+        animation.setStartTime(Animation.START_ON_FIRST_FRAME);
+        mPendingAnimations.add(extras);
+        mPendingDuration = Math.max(mPendingDuration, animation.getDuration());
+        schedule();
+    }
+
+    /**
+     * Forget an ended transition.
+     */
+    void finish(@NonNull AnimExtras extras) {
+        mTransitions.remove(extras);
+    }
+
+    /**
+     * Finish the running transitions from their current progress, their views jump to the end
+     * state so a new navigation or input starts from a settled container.
+     */
+    void endTransitions() {
+        mPendingAnimations.clear();
+        mPendingDuration = 0;
+        mDuration = 0;
+        // ending an animator calls finish() from its listeners
+        AnimExtras[] transitions = mTransitions.toArray(new AnimExtras[0]);
+        mTransitions.clear();
+        for (AnimExtras extras : transitions) {
+            extras.end();
+        }
+        for (int i = mOverlays.size() - 1; i >= 0; i--) {
+            Overlay overlay = mOverlays.get(i);
+            overlay.target.setAlpha(overlay.fadeIn ? 1.0f : 0.0f);
+        }
+        mOverlays.clear();
+    }
+
+    /**
+     * Fade the overlay in or out, aligned with the running transition when there is one.
+     */
+    void fadeOverlay(@NonNull View overlay, boolean fadeIn, long duration) {
+        fadeOverlay(overlay, overlay::setAlpha, fadeIn, duration);
+    }
+
+    /**
+     * @param key    identifies the overlay for {@link #removeOverlay(Object)}
+     * @param target receives the alpha of the overlay on each frame
+     */
+    void fadeOverlay(@NonNull Object key, @NonNull AlphaTarget target, boolean fadeIn, long duration) {
+        removeOverlay(key);
+        target.setAlpha(fadeIn ? 0.0f : 1.0f);
+        mOverlays.add(new Overlay(key, target, fadeIn, Math.max(duration, 1)));
+        schedule();
+    }
+
+    void removeOverlay(@NonNull Object key) {
+        for (int i = mOverlays.size() - 1; i >= 0; i--) {
+            if (mOverlays.get(i).key == key) {
+                mOverlays.remove(i);
+            }
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mScheduled = false;
+        // same time base as AnimationUtils.currentAnimationTimeMillis() during the frame
+        long now = frameTimeNanos / 1_000_000;
+        if (!mPendingAnimations.isEmpty()) {
+            mStartTime = now;
+            mDuration = mPendingDuration;
+            mPendingDuration = 0;
+            for (int i = 0; i < mPendingAnimations.size(); i++) {
+                AnimExtras extras = mPendingAnimations.get(i);
+                // a transition continued from a back gesture starts at its fraction
+                long elapsed = (long) (extras.getStartFraction() * extras.animation.getDuration());
+                extras.animation.setStartTime(now - elapsed);
+            }
+            mPendingAnimations.clear();
+        }
+        for (int i = mOverlays.size() - 1; i >= 0; i--) {
+            Overlay overlay = mOverlays.get(i);
+            if (overlay.startTime == NOT_STARTED) {
+                boolean running = now - mStartTime < mDuration;
+                overlay.startTime = running ? mStartTime : now;
+            }
+            float fraction = Math.min(1.0f, (now - overlay.startTime) / (float) overlay.duration);
+            float alpha = OVERLAY_INTERPOLATOR.getInterpolation(fraction);
+            overlay.target.setAlpha(overlay.fadeIn ? alpha : 1.0f - alpha);
+            if (fraction >= 1.0f) {
+                mOverlays.remove(i);
+            }
+        }
+        if (!mOverlays.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void schedule() {
+        if (!mScheduled) {
+            mScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    interface AlphaTarget {
+        void setAlpha(float alpha);
+    }
+
+    private static final class Overlay {
+        final Object key;
+        final AlphaTarget target;
+        final boolean fadeIn;
+        final long duration;
+        long startTime = NOT_STARTED;
+
+        Overlay(Object key, AlphaTarget target, boolean fadeIn, long duration) {
+            this.key = key;
+            this.target = target;
+            this.fadeIn = fadeIn;
+            this.duration = duration;
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.mct.base.ui.core;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Immutable entry of the back stack managed by {@link IExtraTransaction}.
+ */
+public interface IBackStackEntry {
+
+    /**
+     * @return id of the FragmentManager back stack entry, stable while the entry is in stack
+     */
+    int getId();
+
+    /**
+     * @return position of entry in stack, 0 is the bottom
+     */
+    int getPosition();
+
+    /**
+     * @return back stack name, it is also the tag of the fragment added by the entry: the class
+     * name of the fragment, "class name#id" once {@link IExtraTransaction#switchBackStack} is used
+     */
+    @Nullable
+    String getName();
+
+    /**
+     * @return class name of the fragment added by the entry, read from the name of the entry
+     */
+    @Nullable
+    String getFragmentClassName();
+
+}
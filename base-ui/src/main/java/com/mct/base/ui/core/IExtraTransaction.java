@@ -1,11 +1,25 @@
 package com.mct.base.ui.core;
 
+import android.os.Bundle;
+
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.Lifecycle;
 
 import com.mct.base.ui.transition.FragmentTransition;
 
+import java.util.List;
+
+/**
+ * Navigation of the fragments of one container.<br/>
+ * Navigation requested while the FragmentManager state is saved (host stopped) is deferred and
+ * replayed in order when the host is started again, adds and replaces included: they are not
+ * committed allowing state loss. Until then {@link #getCurrentFragment()}, {@link #getBackStackCount()}
+ * and {@link #getBackStackEntries()} return the state before the request, and a deferred pop
+ * cancels the push deferred right before it.
+ */
 public interface IExtraTransaction {
 
     int getContainerId();
@@ -16,8 +30,113 @@ public interface IExtraTransaction {
 
     Fragment getCurrentFragment();
 
+    /**
+     * @return the fragment below in this container, shown again when the fragment is popped
+     */
+    @Nullable
+    Fragment getPreviousFragment(@NonNull Fragment fragment);
+
+    /**
+     * Fragments are tagged with their class name, {@code FragmentManager.findFragmentByTag}
+     * and {@code popBackStack} with the class name work as well until named back stacks are used.
+     * Back stack entries find their own fragment, instances of the same class do not collide.
+     *
+     * @return the top most instance of the class in this container
+     */
     <T extends Fragment> T findFragmentByTag(Class<T> targetFragment);
 
+    /**
+     * @return immutable snapshot of the back stack, bottom first
+     */
+    @NonNull
+    List<IBackStackEntry> getBackStackEntries();
+
+    void addOnBackStackChangedListener(@NonNull OnBackStackChangedListener listener);
+
+    void removeOnBackStackChangedListener(@NonNull OnBackStackChangedListener listener);
+
+    /**
+     * Opt-in timing of navigations adding a fragment, reported after its first frame is drawn.
+     * Only navigations of this transaction are reported, child transactions have their own.
+     */
+    void addOnNavigationTimingListener(@NonNull OnNavigationTimingListener listener);
+
+    void removeOnNavigationTimingListener(@NonNull OnNavigationTimingListener listener);
+
+    /**
+     * Queued mode: navigation calls can be made from any thread, they are collected
+     * and executed once per frame on the main thread, merged into as few
+     * reordering-allowed transactions as possible.<br/>
+     * Disable on main thread will execute the pending calls immediately.
+     */
+    void setNavigationQueueEnabled(boolean enabled);
+
+    boolean isNavigationQueueEnabled();
+
+    int UNLIMITED_RETAINED_VIEWS = -1;
+
+    /**
+     * Keep the views of the top {@code count} hidden back stack fragments only, deeper hidden
+     * fragments are moved to CREATED and their views are destroyed. The view (with its saved state)
+     * is created again when the fragment comes back near the top.<br/>
+     * Default {@link #UNLIMITED_RETAINED_VIEWS}.
+     */
+    void setMaxRetainedViews(int count);
+
+    int getMaxRetainedViews();
+
+    /**
+     * Max lifecycle of the fragment hidden by {@link #addFragmentToStack(Fragment)}, it comes back
+     * to RESUMED when it becomes current again.<br/>
+     * Default {@link Lifecycle.State#STARTED}, use {@link Lifecycle.State#RESUMED} to disable.
+     */
+    void setHiddenMaxLifecycle(@NonNull Lifecycle.State state);
+
+    @NonNull
+    Lifecycle.State getHiddenMaxLifecycle();
+
+    /**
+     * Re-create the view of a hidden fragment that was destroyed by {@link #setMaxRetainedViews(int)}.
+     */
+    void ensureFragmentView(@NonNull Fragment fragment);
+
+    /**
+     * Inflate the content layout of a {@link com.mct.base.ui.BaseFragment} created with a layout id
+     * while the main thread is idle. The next navigation adding a fragment of this class with
+     * the same arguments uses the prepared view.<br/>
+     * The cache is small, it is cleared on configuration change. Nothing is prepared while no context
+     * is available (host without context and no fragment in the container).
+     */
+    void prefetch(@NonNull Class<? extends Fragment> fragmentClass, @Nullable Bundle args);
+
+    /**
+     * Name of the back stack used before the first {@link #switchBackStack(String, Fragment)}, its
+     * root is the fragment shown once its entries are saved. Switch to it to restore them.<br/>
+     * Switching to it first (with the root of the container) enables the named back stacks before
+     * any push. Otherwise the entries pushed before the first switch keep their class name, the
+     * switch throws {@link IllegalStateException} if the class of the first one was pushed again
+     * above it: they cannot be saved under one name.
+     */
+    String DEFAULT_BACK_STACK = "com.mct.base.ui.DEFAULT_BACK_STACK";
+
+    /**
+     * Named back stacks, e.g. one per bottom navigation tab.<br/>
+     * The entries of the current stack are saved as state (no live views) and the stack
+     * {@code name} becomes current, its saved entries are restored. The root of each stack stays
+     * outside the back stack, hidden while inactive, so switching back to the previous stack is
+     * about one show/hide. {@code root} is only added when the stack does not exist yet.<br/>
+     * Other operations and {@link #getBackStackCount()} apply to the current stack. From the
+     * first switch, fragments are tagged "class name#id" so each stack is saved by a unique name.
+     */
+    void switchBackStack(@NonNull String name, @NonNull Fragment root);
+
+    /**
+     * @return name of the current back stack, null if {@link #switchBackStack(String, Fragment)}
+     * is not used
+     */
+    @Nullable
+    String getCurrentBackStackName();
+
     void addFragment(Fragment fragment);
 
     void addFragment(Fragment fragment, @NonNull FragmentTransition transition);
@@ -68,4 +187,15 @@ public interface IExtraTransaction {
      */
     void popFragmentTo(@NonNull Class<? extends Fragment> targetFragment, boolean includeTargetFragment);
 
-}
\ No newline at end of file
+    interface OnBackStackChangedListener {
+        /**
+         * @param entries immutable snapshot of the back stack, bottom first
+         */
+        void onBackStackChanged(@NonNull List<IBackStackEntry> entries);
+    }
+
+    interface OnNavigationTimingListener {
+        void onNavigationTiming(@NonNull INavigationTiming timing);
+    }
+
+}
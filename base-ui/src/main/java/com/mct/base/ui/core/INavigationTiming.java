@@ -0,0 +1,69 @@
+package com.mct.base.ui.core;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Timing breakdown of a navigation, from the {@link IExtraTransaction} call
+ * until the first frame of the new fragment is drawn.<br/>
+ * All durations are in nanoseconds, {@link #NOT_REACHED} if the phase did not happen.
+ */
+public interface INavigationTiming {
+
+    long NOT_REACHED = -1;
+
+    /**
+     * @return name of the operation, e.g. ADD_TO_STACK
+     */
+    @NonNull
+    String getOperation();
+
+    @NonNull
+    String getFragmentClassName();
+
+    /**
+     * @return transit of the enter animation, 0 if none
+     */
+    int getTransit();
+
+    /**
+     * @return value of the enter animation, decode with
+     * {@link com.mct.base.ui.transition.options.AnimOptions#fromOptionsValue(int)} when negative
+     */
+    int getAnimValue();
+
+    /**
+     * @return {@link System#nanoTime()} of the call
+     */
+    long getRequestTime();
+
+    /**
+     * @return call until the operation is committed (queued mode)
+     */
+    long getQueueDuration();
+
+    /**
+     * @return commit until FragmentManager attaches the fragment
+     */
+    long getExecuteDuration();
+
+    /**
+     * @return attach until onCreateView / onViewCreated are done
+     */
+    long getCreateViewDuration();
+
+    /**
+     * @return view created until the enter animation starts
+     */
+    long getAnimationStartDelay();
+
+    /**
+     * @return view created until the first draw
+     */
+    long getFirstDrawDuration();
+
+    /**
+     * @return call until the first draw
+     */
+    long getTotalDuration();
+
+}
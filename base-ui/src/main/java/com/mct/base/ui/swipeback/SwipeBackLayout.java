@@ -420,17 +420,14 @@ public class SwipeBackLayout extends FrameLayout {
 
                 if (mPreFragment == null) {
                     if (mFragment != null) {
-                        List<Fragment> fragmentList = mFragment.getParentFragmentManager().getFragments();
-                        if (fragmentList != null && fragmentList.size() > 1) {
-                            int index = fragmentList.indexOf(mFragment);
-                            for (int i = index - 1; i >= 0; i--) {
-                                Fragment fragment = fragmentList.get(i);
-                                if (fragment != null && fragment.getView() != null) {
-                                    fragment.getView().setVisibility(VISIBLE);
-                                    mPreFragment = fragment;
-                                    break;
-                                }
-                            }
+                        Fragment fragment = getExtraTransaction().getPreviousFragment(mFragment);
+                        if (fragment != null && fragment.getView() == null) {
+                            // view may be destroyed by retained view policy
+                            getExtraTransaction().ensureFragmentView(fragment);
+                        }
+                        if (fragment != null && fragment.getView() != null) {
+                            fragment.getView().setVisibility(VISIBLE);
+                            mPreFragment = fragment;
                         }
                     }
                 } else {
@@ -481,10 +478,7 @@ public class SwipeBackLayout extends FrameLayout {
                     if (!mFragment.isDetached()) {
                         onDragFinished();
                         mFragment.pendingPreventAnimation();
-                        IExtraTransaction transaction = mFragment.parentExtraTransaction() != null
-                                ? mFragment.parentExtraTransaction()
-                                : mFragment.extraTransaction();
-                        transaction.popFragment();
+                        getExtraTransaction().popFragment();
                     }
                 }
             }
@@ -539,6 +533,13 @@ public class SwipeBackLayout extends FrameLayout {
         }
     }
 
+    @NonNull
+    private IExtraTransaction getExtraTransaction() {
+        return mFragment.parentExtraTransaction() != null
+                ? mFragment.parentExtraTransaction()
+                : mFragment.extraTransaction();
+    }
+
     private void onDragFinished() {
         if (mListeners != null) {
             for (OnSwipeListener listener : mListeners) {
@@ -0,0 +1,195 @@
+package com.mct.base.ui.transition;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.PixelCopy;
+import android.view.SurfaceView;
+import android.view.TextureView;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.Window;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+import androidx.annotation.UiThread;
+
+import com.mct.base.ui.transition.options.AnimExtras;
+
+/**
+ * Run the exit transition of a view on a snapshot of it, main thread only, api 26 and above.<br/>
+ * The last frame of the window is copied by {@link PixelCopy} off the main thread into a pooled
+ * bitmap, the transition starts on the live view and the snapshot replaces its children once the
+ * copy is done. The same {@link AnimExtras} animates the snapshot, the live hierarchy (maps,
+ * charts, lists) is not redrawn anymore:
+ * <ul>
+ *     <li>a removed view releases its children, it is destroyed when the transition ends</li>
+ *     <li>a hidden view hides its children until the transition ends</li>
+ * </ul>
+ * Children holding a {@link TextureView} are left alone, a hierarchy with a {@link SurfaceView}
+ * (not in the window copy) runs the live transition.
+ */
+@UiThread
+@RequiresApi(api = Build.VERSION_CODES.O)
+public final class ExitSnapshot implements AnimExtras.AnimExtrasListener, PixelCopy.OnPixelCopyFinishedListener {
+
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private final View mView;
+    private final Bitmap mBitmap;
+    private final boolean mReleaseChildren;
+    private Drawable mForeground;
+    private int[] mChildVisibilities;
+    private boolean mShown;
+    private boolean mEnded;
+
+    private ExitSnapshot(@NonNull View view, @NonNull Bitmap bitmap, boolean releaseChildren) {
+        this.mView = view;
+        this.mBitmap = bitmap;
+        this.mReleaseChildren = releaseChildren;
+    }
+
+    /**
+     * Copy the view from the window and show the snapshot until the transition ends, add it
+     * before the listeners removing all the listeners on end.
+     *
+     * @param container       parent of the view, new bitmaps are allocated at its size
+     * @param releaseChildren true when the view is destroyed at the end of the transition
+     * @return null when the view cannot be copied, the transition then animates the live view
+     */
+    @Nullable
+    public static ExitSnapshot attach(@NonNull AnimExtras extras,
+                                      @NonNull View view,
+                                      @Nullable View container,
+                                      boolean releaseChildren) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        Window window = findWindow(view.getContext());
+        if (width <= 0 || height <= 0 || window == null || !view.isAttachedToWindow()
+                || !(view instanceof ViewGroup) || contains(view, SurfaceView.class)) {
+            return null;
+        }
+        int containerWidth = container != null ? container.getWidth() : width;
+        int containerHeight = container != null ? container.getHeight() : height;
+        Bitmap bitmap = SnapshotBitmapPool.acquire(width, height, containerWidth, containerHeight);
+        int[] location = new int[2];
+        view.getLocationInWindow(location);
+        Rect source = new Rect(location[0], location[1], location[0] + width, location[1] + height);
+        ExitSnapshot snapshot = new ExitSnapshot(view, bitmap, releaseChildren);
+        try {
+            PixelCopy.request(window, source, bitmap, snapshot, sMainHandler);
+        } catch (IllegalArgumentException e) {
+            // the window has no surface yet
+            SnapshotBitmapPool.release(bitmap);
+            return null;
+        }
+        extras.addAnimationListener(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Recycle the pooled bitmaps, e.g. on low memory.
+     */
+    public static void clearPool() {
+        SnapshotBitmapPool.clear();
+    }
+
+    @Override
+    public void onPixelCopyFinished(int copyResult) {
+        if (mEnded || copyResult != PixelCopy.SUCCESS) {
+            SnapshotBitmapPool.release(mBitmap);
+            return;
+        }
+        show();
+    }
+
+    @Override
+    public void onAnimationStart(@NonNull AnimExtras animExtras) {
+    }
+
+    @Override
+    public void onAnimationEnd(@NonNull AnimExtras animExtras) {
+        if (mEnded) {
+            return;
+        }
+        mEnded = true;
+        if (mShown) {
+            restore();
+        }
+    }
+
+    private void show() {
+        mShown = true;
+        mForeground = mView.getForeground();
+        ViewGroup group = (ViewGroup) mView;
+        if (mReleaseChildren) {
+            for (int i = group.getChildCount() - 1; i >= 0; i--) {
+                if (!contains(group.getChildAt(i), TextureView.class)) {
+                    group.removeViewAt(i);
+                }
+            }
+        } else {
+            mChildVisibilities = new int[group.getChildCount()];
+            for (int i = 0; i < mChildVisibilities.length; i++) {
+                View child = group.getChildAt(i);
+                mChildVisibilities[i] = child.getVisibility();
+                if (child.getVisibility() == View.VISIBLE && !contains(child, TextureView.class)) {
+                    child.setVisibility(View.INVISIBLE);
+                }
+            }
+        }
+        BitmapDrawable drawable = new BitmapDrawable(mView.getResources(), mBitmap);
+        drawable.setBounds(0, 0, mBitmap.getWidth(), mBitmap.getHeight());
+        mView.setForeground(drawable);
+    }
+
+    private void restore() {
+        if (mChildVisibilities != null) {
+            ViewGroup group = (ViewGroup) mView;
+            int count = Math.min(group.getChildCount(), mChildVisibilities.length);
+            for (int i = 0; i < count; i++) {
+                View child = group.getChildAt(i);
+                if (child.getVisibility() == View.INVISIBLE) {
+                    child.setVisibility(mChildVisibilities[i]);
+                }
+            }
+        }
+        mView.setForeground(mForeground);
+        SnapshotBitmapPool.release(mBitmap);
+    }
+
+    private static boolean contains(@NonNull View view, @NonNull Class<? extends View> type) {
+        if (type.isInstance(view)) {
+            return true;
+        }
+        if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                if (contains(group.getChildAt(i), type)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Window findWindow(@Nullable Context context) {
+        while (context instanceof ContextWrapper) {
+            if (context instanceof Activity) {
+                return ((Activity) context).getWindow();
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
+
+}
@@ -7,9 +7,26 @@ public interface FragmentTransition {
 
     void applyTransition(@NonNull FragmentTransaction transaction);
 
+    /**
+     * @return pop enter animation applied by this transition, used to preview a back gesture
+     */
+    default int getPopEnterAnim() {
+        return 0;
+    }
+
+    /**
+     * @return pop exit animation applied by this transition, used to preview a back gesture
+     */
+    default int getPopExitAnim() {
+        return 0;
+    }
+
     /**
      * a function to manage the transition when (pop and replace) fragment
+     *
+     * @deprecated pop and replace are now executed together as one reordered operation.
      */
+    @Deprecated
     default boolean couldPopImmediate() {
         return true;
     }
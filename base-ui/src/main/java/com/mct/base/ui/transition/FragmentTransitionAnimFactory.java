@@ -20,47 +20,182 @@ import android.animation.AnimatorInflater;
 import android.animation.AnimatorSet;
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.Resources;
 import android.graphics.Point;
 import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.AccelerateInterpolator;
 import android.view.animation.Animation;
 import android.view.animation.AnimationUtils;
+import android.view.animation.DecelerateInterpolator;
+import android.view.animation.Interpolator;
+import android.view.animation.LinearInterpolator;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.fragment.R;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.interpolator.view.animation.FastOutLinearInInterpolator;
+import androidx.interpolator.view.animation.FastOutSlowInInterpolator;
+import androidx.interpolator.view.animation.LinearOutSlowInInterpolator;
 
-import com.mct.base.ui.transition.animation.CubeAnimation;
-import com.mct.base.ui.transition.animation.FlipAnimation;
-import com.mct.base.ui.transition.animation.MoveAnimation;
-import com.mct.base.ui.transition.animation.NoneAnimation;
-import com.mct.base.ui.transition.animation.PushPullAnimation;
-import com.mct.base.ui.transition.animation.SidesAnimation;
+import com.mct.base.ui.transition.animation.ComposedAnimation;
 import com.mct.base.ui.transition.animator.CircularRevealAnimator;
+import com.mct.base.ui.transition.animator.CubeAnimator;
 import com.mct.base.ui.transition.animator.FadeAnimator;
+import com.mct.base.ui.transition.animator.FlipAnimator;
 import com.mct.base.ui.transition.animator.MoveAnimator;
 import com.mct.base.ui.transition.animator.NoneAnimator;
+import com.mct.base.ui.transition.animator.PushPullAnimator;
 import com.mct.base.ui.transition.animator.RotateAnimator;
 import com.mct.base.ui.transition.animator.ScaleAnimator;
+import com.mct.base.ui.transition.animator.SidesAnimator;
+import com.mct.base.ui.transition.animator.ViewPropertyAnimator;
+import com.mct.base.ui.transition.annotation.AnimInterpolator;
 import com.mct.base.ui.transition.annotation.AnimType;
+import com.mct.base.ui.transition.annotation.AnimationStyle;
 import com.mct.base.ui.transition.annotation.AnimatorStyle;
 import com.mct.base.ui.transition.options.AnimExtras;
+import com.mct.base.ui.transition.options.AnimExtrasPool;
 import com.mct.base.ui.transition.options.AnimOptions;
 import com.mct.base.ui.transition.options.AnimOptionsData;
 
 public class FragmentTransitionAnimFactory {
 
+    private static final float SCALE_LAYER_FROM = 0.9f;
+    private static final float DIM_ALPHA = 0.3f;
+
+    // Flag of a style layer that fades from or to DIM_ALPHA
+    private static final int LAYER_DIM = 1 << 8;
+
+    // Layer of each AnimationStyle on enter and exit, a composite style is made of two base styles
+    private static final int[][] STYLE_LAYERS = new int[CUBE_FLIP + 1][];
+
+    static {
+        // @formatter:off
+        STYLE_LAYERS[NONE]      = new int[]{NONE,                   NONE};
+        STYLE_LAYERS[MOVE]      = new int[]{MOVE,                   MOVE};
+        STYLE_LAYERS[CUBE]      = new int[]{CUBE,                   CUBE};
+        STYLE_LAYERS[FLIP]      = new int[]{FLIP,                   FLIP};
+        STYLE_LAYERS[PUSH_PULL] = new int[]{PUSH_PULL,              PUSH_PULL};
+        STYLE_LAYERS[SIDES]     = new int[]{SIDES,                  SIDES};
+        STYLE_LAYERS[CUBE_MOVE] = new int[]{MOVE | LAYER_DIM,       CUBE | LAYER_DIM};
+        STYLE_LAYERS[MOVE_CUBE] = new int[]{CUBE | LAYER_DIM,       MOVE | LAYER_DIM};
+        STYLE_LAYERS[PUSH_MOVE] = new int[]{MOVE,                   PUSH_PULL};
+        STYLE_LAYERS[MOVE_PULL] = new int[]{PUSH_PULL,              MOVE | LAYER_DIM};
+        STYLE_LAYERS[FLIP_MOVE] = new int[]{MOVE,                   FLIP};
+        STYLE_LAYERS[MOVE_FLIP] = new int[]{FLIP,                   MOVE | LAYER_DIM};
+        STYLE_LAYERS[FLIP_CUBE] = new int[]{CUBE,                   FLIP};
+        STYLE_LAYERS[CUBE_FLIP] = new int[]{FLIP,                   CUBE | LAYER_DIM};
+        // @formatter:on
+    }
+
+    private static final LinearInterpolator LINEAR = new LinearInterpolator();
+    private static final AccelerateInterpolator ACCELERATE = new AccelerateInterpolator();
+    private static final DecelerateInterpolator DECELERATE = new DecelerateInterpolator();
+    private static final AccelerateDecelerateInterpolator ACCELERATE_DECELERATE = new AccelerateDecelerateInterpolator();
+    private static final FastOutSlowInInterpolator FAST_OUT_SLOW_IN = new FastOutSlowInInterpolator();
+    private static final FastOutLinearInInterpolator FAST_OUT_LINEAR_IN = new FastOutLinearInInterpolator();
+    private static final LinearOutSlowInInterpolator LINEAR_OUT_SLOW_IN = new LinearOutSlowInInterpolator();
+
+    // Resource types of xml and transit based transitions, AnimatorInflater already caches the animators per theme
+    private static final PrototypeCache<Resources, String> sResourceTypeNames = new PrototypeCache<>(
+            new PrototypeCache.Loader<Resources, String>() {
+                @Override
+                public String load(@NonNull Resources source, int id) {
+                    return source.getResourceTypeName(id);
+                }
+
+                @NonNull
+                @Override
+                public String copy(@NonNull String prototype) {
+                    return prototype;
+                }
+            });
+    private static Configuration sResourcesConfig;
+
     @NonNull
     public static AnimExtras create(@NonNull AnimOptionsData aod) {
+        return create(aod, null);
+    }
+
+    /**
+     * @param composer changes the layers of an {@link AnimType#ANIMATION} without
+     *                 {@link AnimOptions#isPropertyAnimator()}, a changed animation is not pooled
+     */
+    @NonNull
+    public static AnimExtras create(@NonNull AnimOptionsData aod, @Nullable AnimationComposer composer) {
+        if (aod.getOptions().getAnimType() == AnimType.ANIMATION && aod.getOptions().isPropertyAnimator()) {
+            Animator animator = createPropertyAnimator(aod);
+            Interpolator interpolator = getInterpolator(aod.getOptions().getInterpolator());
+            if (interpolator != null) {
+                animator.setInterpolator(interpolator);
+            }
+            prepareAnimator(animator, aod);
+            return new AnimExtras(animator);
+        }
         if (aod.getOptions().getAnimType() == AnimType.ANIMATION) {
-            return new AnimExtras(createAnimation(aod));
+            ComposedAnimation.Builder builder = composeAnimation(aod);
+            boolean composed = composer != null && composer.onComposeAnimation(builder, aod.getOptions(), aod.isEnter());
+            int key = AnimExtrasPool.key(AnimOptions.toOptionsValue(aod.getOptions()), aod.isEnter());
+            if (!composed) {
+                AnimExtras extras = AnimExtrasPool.acquire(key, aod.getDuration());
+                if (extras != null) {
+                    return extras;
+                }
+            }
+            Animation animation = builder.build();
+            Interpolator interpolator = getInterpolator(aod.getOptions().getInterpolator());
+            if (interpolator != null) {
+                animation.setInterpolator(interpolator);
+            }
+            return composed ? new AnimExtras(animation) : AnimExtrasPool.attach(new AnimExtras(animation), key);
         }
         if (aod.getOptions().getAnimType() == AnimType.ANIMATOR) {
-            return new AnimExtras(createAnimator(aod));
+            Animator animator = createAnimator(aod);
+            Interpolator interpolator = getInterpolator(aod.getOptions().getInterpolator());
+            if (interpolator != null) {
+                animator.setInterpolator(interpolator);
+            }
+            prepareAnimator(animator, aod);
+            return new AnimExtras(animator);
         }
         return create(AnimExtras.class);
     }
 
+    /**
+     * Builder holding the layers of the {@link AnimationStyle} and the fade and scale of the options,
+     * add or replace layers then build the animation.
+     */
+    @NonNull
+    public static ComposedAnimation.Builder composeAnimation(@NonNull AnimOptionsData aod) {
+        AnimOptions options = aod.getOptions();
+        int direction = options.getAnimDirection();
+        boolean enter = aod.isEnter();
+
+        ComposedAnimation.Builder builder = ComposedAnimation.builder(enter, aod.getDuration());
+        int layer = getStyleLayer(options.getAnimStyle(), enter);
+        // @formatter:off
+        switch (layer & ~LAYER_DIM) {
+            case MOVE:      builder.move(direction); break;
+            case CUBE:      builder.cube(direction); break;
+            case FLIP:      builder.flip(direction); break;
+            case PUSH_PULL: builder.pushPull(direction); break;
+            case SIDES:     builder.sides(direction); break;
+        }
+        // @formatter:on
+        if (options.hasFade()) {
+            builder.fade(enter ? 0.0f : 1.0f, enter ? 1.0f : 0.0f);
+        } else if ((layer & LAYER_DIM) != 0) {
+            builder.fade(enter ? DIM_ALPHA : 1.0f, enter ? 1.0f : DIM_ALPHA);
+        }
+        if (options.hasScale()) {
+            builder.scale(enter ? SCALE_LAYER_FROM : 1.0f, enter ? 1.0f : SCALE_LAYER_FROM);
+        }
+        return builder;
+    }
+
     @NonNull
     public static AnimExtras create(Context context, int transit, boolean enter, int nextAnim) {
         if (nextAnim == 0 && transit != 0) {
@@ -68,7 +203,8 @@ public class FragmentTransitionAnimFactory {
         }
         if (nextAnim != 0) {
             try {
-                String dir = context.getResources().getResourceTypeName(nextAnim);
+                invalidateResourceCaches(context.getResources());
+                String dir = sResourceTypeNames.get(context.getResources(), nextAnim);
                 if ("anim".equals(dir)) {
                     Animation animation = AnimationUtils.loadAnimation(context, nextAnim);
                     if (animation != null) {
@@ -90,49 +226,34 @@ public class FragmentTransitionAnimFactory {
         return create(AnimExtras.class);
     }
 
+    /**
+     * View property equivalent of {@link #composeAnimation(AnimOptionsData)}.
+     */
     @NonNull
-    private static Animation createAnimation(@NonNull AnimOptionsData aod) {
+    private static Animator createPropertyAnimator(@NonNull AnimOptionsData aod) {
         AnimOptions options = aod.getOptions();
-        int style = options.getAnimStyle();
         int direction = options.getAnimDirection();
+
+        View view = aod.getView();
         int duration = aod.getDuration();
         boolean enter = aod.isEnter();
 
+        ViewPropertyAnimator animator;
+        int layer = getStyleLayer(options.getAnimStyle(), enter);
         // @formatter:off
-        switch (style) {
-            case NONE:      return NoneAnimation.create(duration);
-            case MOVE:      return MoveAnimation.create(direction, enter, duration);
-            case CUBE:      return CubeAnimation.create(direction, enter, duration);
-            case FLIP:      return FlipAnimation.create(direction, enter, duration);
-            case PUSH_PULL: return PushPullAnimation.create(direction, enter, duration);
-            case SIDES:     return SidesAnimation.create(direction, enter, duration);
-            case CUBE_MOVE: return enter
-                                ? MoveAnimation.create(direction, enter, duration).fading(0.3f, 1.0f)
-                                : CubeAnimation.create(direction, enter, duration).fading(1.0f, 0.3f);
-            case MOVE_CUBE: return enter
-                                ? CubeAnimation.create(direction, enter, duration).fading(0.3f, 1.0f)
-                                : MoveAnimation.create(direction, enter, duration).fading(1.0f, 0.3f);
-            case PUSH_MOVE: return enter
-                                ? MoveAnimation.create(direction, enter, duration)
-                                : PushPullAnimation.create(direction, enter, duration);
-            case MOVE_PULL: return enter
-                                ? PushPullAnimation.create(direction, enter, duration)
-                                : MoveAnimation.create(direction, enter, duration).fading(1.0f, 0.3f);
-            case FLIP_MOVE: return enter
-                                ? MoveAnimation.create(direction, enter, duration)
-                                : FlipAnimation.create(direction, enter, duration);
-            case MOVE_FLIP: return enter
-                                ? FlipAnimation.create(direction, enter, duration)
-                                : MoveAnimation.create(direction, enter, duration).fading(1.0f, 0.3f);
-            case FLIP_CUBE: return enter
-                                ? CubeAnimation.create(direction, enter, duration)
-                                : FlipAnimation.create(direction, enter, duration);
-            case CUBE_FLIP: return enter
-                                ? FlipAnimation.create(direction, enter, duration)
-                                : CubeAnimation.create(direction, enter, duration).fading(1.0f, 0.3f);
+        switch (layer & ~LAYER_DIM) {
+            case MOVE:      animator = MoveAnimator.create(view, direction, enter, duration); break;
+            case CUBE:      animator = CubeAnimator.create(view, direction, enter, duration); break;
+            case FLIP:      animator = FlipAnimator.create(view, direction, enter, duration); break;
+            case PUSH_PULL: animator = PushPullAnimator.create(view, direction, enter, duration); break;
+            case SIDES:     animator = SidesAnimator.create(view, direction, enter, duration); break;
+            default:        animator = NoneAnimator.create(view, duration); break;
         }
         // @formatter:on
-        return create(Animation.class);
+        if ((layer & LAYER_DIM) != 0) {
+            animator.fading(enter ? DIM_ALPHA : 1.0f, enter ? 1.0f : DIM_ALPHA);
+        }
+        return applyLayers(animator, options, enter);
     }
 
     @NonNull
@@ -146,30 +267,103 @@ public class FragmentTransitionAnimFactory {
         boolean enter = aod.isEnter();
         Point center = aod.getCircularPosition();
 
+        ViewPropertyAnimator animator;
         // @formatter:off
         switch (style) {
-            case AnimatorStyle.NONE:
-                return NoneAnimator.create(view, duration);
             case AnimatorStyle.MOVE:
-                return MoveAnimator.create(view, direction, enter, duration);
+                animator = MoveAnimator.create(view, direction, enter, duration);
+                break;
             case AnimatorStyle.FADE:
-                return FadeAnimator.create(view, enter, duration);
+                animator = FadeAnimator.create(view, enter, duration);
+                break;
             case AnimatorStyle.CIRCULAR_REVEAL:
-                return CircularRevealAnimator.create(view, enter, duration, center.x, center.y);
+                animator = CircularRevealAnimator.create(view, enter, duration, center.x, center.y);
+                break;
             case AnimatorStyle.ROTATE:
-                return RotateAnimator.create(view, direction, enter,duration)
+                animator = RotateAnimator.create(view, direction, enter,duration)
                         .fading(enter ? 0f : 1f, enter ? 1f : 0f);
+                break;
             case AnimatorStyle.ROTATE_UP:
-                return RotateAnimator.createRotateUp(view, direction, enter, duration)
+                animator = RotateAnimator.createRotateUp(view, direction, enter, duration)
                         .fading(enter ? 0.3f : 1f, enter ? 1f : 0.3f);
+                break;
             case AnimatorStyle.ROTATE_DOWN:
-                return RotateAnimator.createRotateDown(view, direction, enter, duration)
+                animator = RotateAnimator.createRotateDown(view, direction, enter, duration)
                         .fading(enter ? 0.3f : 1f, enter ? 1f : 0.3f);
+                break;
             case AnimatorStyle.SCALE:
-                return ScaleAnimator.create(view, direction, enter, duration);
+                animator = ScaleAnimator.create(view, direction, enter, duration);
+                break;
+            case AnimatorStyle.NONE:
+            default:
+                animator = NoneAnimator.create(view, duration);
+                break;
+        }
+        // @formatter:on
+        return applyLayers(animator, options, enter);
+    }
+
+    /**
+     * Fade and scale of the options on top of the style of an animator, as the layers of
+     * {@link #composeAnimation(AnimOptionsData)}.
+     */
+    @NonNull
+    private static ViewPropertyAnimator applyLayers(@NonNull ViewPropertyAnimator animator, @NonNull AnimOptions options, boolean enter) {
+        if (options.hasFade()) {
+            animator.fading(enter ? 0.0f : 1.0f, enter ? 1.0f : 0.0f);
+        }
+        if (options.hasScale()) {
+            animator.scaling(enter ? SCALE_LAYER_FROM : 1.0f, enter ? 1.0f : SCALE_LAYER_FROM);
+        }
+        return animator;
+    }
+
+    /**
+     * @return base style of the layer of the style, with {@link #LAYER_DIM} when it fades
+     * from or to {@link #DIM_ALPHA}
+     */
+    private static int getStyleLayer(@AnimationStyle int style, boolean enter) {
+        if (style < 0 || style >= STYLE_LAYERS.length) {
+            return NONE;
+        }
+        return STYLE_LAYERS[style][enter ? 0 : 1];
+    }
+
+    /**
+     * Build the animator from the known size of the container, it then starts on the frame of
+     * the commit instead of waiting for its view to be attached.
+     */
+    private static void prepareAnimator(@NonNull Animator animator, @NonNull AnimOptionsData aod) {
+        if (animator instanceof ViewPropertyAnimator && aod.getContainerWidth() > 0 && aod.getContainerHeight() > 0) {
+            ((ViewPropertyAnimator) animator).containerSize(aod.getContainerWidth(), aod.getContainerHeight()).prepare();
+        }
+    }
+
+    @Nullable
+    private static Interpolator getInterpolator(@AnimInterpolator int interpolator) {
+        // @formatter:off
+        switch (interpolator) {
+            case AnimInterpolator.LINEAR:                   return LINEAR;
+            case AnimInterpolator.ACCELERATE:               return ACCELERATE;
+            case AnimInterpolator.DECELERATE:               return DECELERATE;
+            case AnimInterpolator.ACCELERATE_DECELERATE:    return ACCELERATE_DECELERATE;
+            case AnimInterpolator.FAST_OUT_SLOW_IN:         return FAST_OUT_SLOW_IN;
+            case AnimInterpolator.FAST_OUT_LINEAR_IN:       return FAST_OUT_LINEAR_IN;
+            case AnimInterpolator.LINEAR_OUT_SLOW_IN:       return LINEAR_OUT_SLOW_IN;
         }
         // @formatter:on
-        return create(Animator.class);
+        return null;
+    }
+
+    /**
+     * Drop the cached resources when the configuration changed in a way that can change them.
+     */
+    private static void invalidateResourceCaches(@NonNull Resources resources) {
+        Configuration config = resources.getConfiguration();
+        if (sResourcesConfig == null || sResourcesConfig.diff(config) != 0) {
+            sResourceTypeNames.clear();
+            sResourcesConfig = new Configuration(config);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -205,6 +399,17 @@ public class FragmentTransitionAnimFactory {
         return animAttr;
     }
 
+    /**
+     * Changes the layers of an {@link AnimType#ANIMATION} before it is built.
+     */
+    public interface AnimationComposer {
+        /**
+         * @param builder holds the layers of the {@link AnimationStyle} and the fade and scale of the options
+         * @return true when the layers were changed
+         */
+        boolean onComposeAnimation(@NonNull ComposedAnimation.Builder builder, @NonNull AnimOptions options, boolean enter);
+    }
+
     private FragmentTransitionAnimFactory() {
         //no instance
     }
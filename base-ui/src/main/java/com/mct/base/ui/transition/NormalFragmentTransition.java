@@ -25,6 +25,16 @@ public class NormalFragmentTransition implements FragmentTransition {
         transaction.setCustomAnimations(enter, exit, popEnter, popExit);
     }
 
+    @Override
+    public int getPopEnterAnim() {
+        return popEnter;
+    }
+
+    @Override
+    public int getPopExitAnim() {
+        return popExit;
+    }
+
     @Override
     public boolean couldPopImmediate() {
         AnimOptions options = AnimOptions.fromOptionsValue(enter);
@@ -0,0 +1,59 @@
+package com.mct.base.ui.transition;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Values loaded from resource ids, each resource is loaded once from the first source asking
+ * for it, until the cache is cleared.<br/>
+ * Mutable values are kept as prototypes, a copy is returned for each use.
+ */
+final class PrototypeCache<S, T> {
+
+    private final Map<Integer, T> mPrototypes = new HashMap<>();
+    private final Loader<S, T> mLoader;
+
+    PrototypeCache(@NonNull Loader<S, T> loader) {
+        this.mLoader = loader;
+    }
+
+    /**
+     * @return a copy of the prototype of this resource, null if it cannot be loaded
+     */
+    @Nullable
+    T get(@NonNull S source, int id) {
+        T prototype = mPrototypes.get(id);
+        if (prototype == null) {
+            prototype = mLoader.load(source, id);
+            if (prototype == null) {
+                return null;
+            }
+            mPrototypes.put(id, prototype);
+        }
+        return mLoader.copy(prototype);
+    }
+
+    int size() {
+        return mPrototypes.size();
+    }
+
+    void clear() {
+        mPrototypes.clear();
+    }
+
+    interface Loader<S, T> {
+
+        @Nullable
+        T load(@NonNull S source, int id);
+
+        /**
+         * @return the value returned to the caller, the prototype itself when it is immutable
+         */
+        @NonNull
+        T copy(@NonNull T prototype);
+    }
+
+}
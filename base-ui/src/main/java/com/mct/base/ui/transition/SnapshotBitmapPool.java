@@ -0,0 +1,77 @@
+package com.mct.base.ui.transition;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.UiThread;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * Pool of the bitmaps holding the snapshots of exiting views, main thread only.<br/>
+ * Bitmaps are allocated at the size of the container, a pooled bitmap is reconfigured
+ * for any view it can hold.
+ */
+@UiThread
+final class SnapshotBitmapPool {
+
+    private static final int MAX_POOL_SIZE = 2;
+    private static final ArrayDeque<Bitmap> sPool = new ArrayDeque<>(MAX_POOL_SIZE);
+
+    /**
+     * @param width           width of the snapshot
+     * @param height          height of the snapshot
+     * @param containerWidth  width allocated for a new bitmap, at least the snapshot width
+     * @param containerHeight height allocated for a new bitmap, at least the snapshot height
+     */
+    @NonNull
+    static Bitmap acquire(int width, int height, int containerWidth, int containerHeight) {
+        int byteCount = width * height * 4;
+        Iterator<Bitmap> iterator = sPool.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.isRecycled()) {
+                iterator.remove();
+            } else if (bitmap.getAllocationByteCount() >= byteCount) {
+                iterator.remove();
+                if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+                    bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+                }
+                bitmap.eraseColor(0);
+                return bitmap;
+            }
+        }
+        Bitmap bitmap = Bitmap.createBitmap(
+                Math.max(width, containerWidth),
+                Math.max(height, containerHeight),
+                Bitmap.Config.ARGB_8888);
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+        }
+        return bitmap;
+    }
+
+    static void release(@NonNull Bitmap bitmap) {
+        if (bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        if (sPool.size() < MAX_POOL_SIZE && !sPool.contains(bitmap)) {
+            sPool.offer(bitmap);
+        } else {
+            bitmap.recycle();
+        }
+    }
+
+    static void clear() {
+        for (Bitmap bitmap : sPool) {
+            bitmap.recycle();
+        }
+        sPool.clear();
+    }
+
+    private SnapshotBitmapPool() {
+        //no instance
+    }
+
+}
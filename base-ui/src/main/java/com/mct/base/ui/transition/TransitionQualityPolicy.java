@@ -0,0 +1,345 @@
+package com.mct.base.ui.transition;
+
+import android.app.ActivityManager;
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+import androidx.annotation.FloatRange;
+import androidx.annotation.IntRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+
+import com.mct.base.ui.transition.annotation.AnimType;
+import com.mct.base.ui.transition.annotation.AnimationStyle;
+import com.mct.base.ui.transition.annotation.AnimatorStyle;
+import com.mct.base.ui.transition.annotation.TransitionQuality;
+import com.mct.base.ui.transition.options.AnimExtras;
+import com.mct.base.ui.transition.options.AnimOptions;
+
+/**
+ * Downgrade the {@link AnimOptions} of a transition from the state of the device, main thread only.<br/>
+ * Each signal (low ram device, battery saver, thermal status, frames dropped by the recent
+ * transitions) maps to a {@link TransitionQuality}, the lowest quality of the active signals is used.
+ * Share one instance between the fragments, the dropped frames are measured on the transitions
+ * tracked by {@link #trackTransition(AnimExtras, View)}.
+ */
+@UiThread
+public final class TransitionQualityPolicy {
+
+    // @formatter:off
+    public static final int SIGNAL_LOW_RAM          = 1;
+    public static final int SIGNAL_BATTERY_SAVER    = 1 << 1;
+    public static final int SIGNAL_THERMAL          = 1 << 2;
+    public static final int SIGNAL_JANK             = 1 << 3;
+    // @formatter:on
+
+    private static final float DEFAULT_REFRESH_RATE = 60.0f;
+
+    private final int mLowRamQuality;
+    private final int mBatterySaverQuality;
+    private final int mThermalStatus;
+    private final int mThermalQuality;
+    private final float mJankRatio;
+    private final int mJankQuality;
+    private final float[] mDroppedRatios;
+    private final OnQualityDecisionListener mListener;
+    private int mDroppedCount;
+    private int mDroppedIndex;
+    private Boolean mLowRamDevice;
+
+    private TransitionQualityPolicy(@NonNull Builder builder) {
+        this.mLowRamQuality = builder.lowRamQuality;
+        this.mBatterySaverQuality = builder.batterySaverQuality;
+        this.mThermalStatus = builder.thermalStatus;
+        this.mThermalQuality = builder.thermalQuality;
+        this.mJankRatio = builder.jankRatio;
+        this.mJankQuality = builder.jankQuality;
+        this.mDroppedRatios = new float[builder.jankWindow];
+        this.mListener = builder.listener;
+    }
+
+    /**
+     * @return the options to run, the requested ones when no signal is active
+     */
+    @NonNull
+    public AnimOptions apply(@NonNull Context context, @NonNull AnimOptions options) {
+        int signals = 0;
+        int quality = TransitionQuality.FULL;
+        if (mLowRamQuality != TransitionQuality.FULL && isLowRamDevice(context)) {
+            signals |= SIGNAL_LOW_RAM;
+            quality = Math.max(quality, mLowRamQuality);
+        }
+        PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (pm != null) {
+            if (mBatterySaverQuality != TransitionQuality.FULL && pm.isPowerSaveMode()) {
+                signals |= SIGNAL_BATTERY_SAVER;
+                quality = Math.max(quality, mBatterySaverQuality);
+            }
+            if (mThermalQuality != TransitionQuality.FULL && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                    && pm.getCurrentThermalStatus() >= mThermalStatus) {
+                signals |= SIGNAL_THERMAL;
+                quality = Math.max(quality, mThermalQuality);
+            }
+        }
+        if (mJankQuality != TransitionQuality.FULL && getDroppedFrameRatio() >= mJankRatio) {
+            signals |= SIGNAL_JANK;
+            quality = Math.max(quality, mJankQuality);
+        }
+        AnimOptions result = downgrade(options, quality);
+        if (mListener != null) {
+            mListener.onQualityDecision(new Decision(options, result, quality, signals));
+        }
+        return result;
+    }
+
+    /**
+     * Measure the frames dropped while the transition runs, track one transition per navigation
+     * (e.g. the enter one). Call it before adding listeners that remove all the listeners on end.
+     *
+     * @param view the animated view, its display gives the expected frame interval
+     */
+    public void trackTransition(@NonNull AnimExtras extras, @Nullable View view) {
+        if (mJankQuality == TransitionQuality.FULL) {
+            return;
+        }
+        Display display = view != null ? view.getDisplay() : null;
+        float refreshRate = display != null ? display.getRefreshRate() : DEFAULT_REFRESH_RATE;
+        extras.addAnimationListener(new FrameDropTracker(refreshRate));
+    }
+
+    /**
+     * @return average ratio of dropped frames over the recent tracked transitions
+     */
+    public float getDroppedFrameRatio() {
+        int count = Math.min(mDroppedCount, mDroppedRatios.length);
+        if (count == 0) {
+            return 0;
+        }
+        float sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += mDroppedRatios[i];
+        }
+        return sum / count;
+    }
+
+    private boolean isLowRamDevice(@NonNull Context context) {
+        if (mLowRamDevice == null) {
+            ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+            mLowRamDevice = am != null && am.isLowRamDevice();
+        }
+        return mLowRamDevice;
+    }
+
+    private void addDroppedFrameRatio(float ratio) {
+        mDroppedRatios[mDroppedIndex] = ratio;
+        mDroppedIndex = (mDroppedIndex + 1) % mDroppedRatios.length;
+        mDroppedCount++;
+    }
+
+    /**
+     * @return the options run with this quality
+     */
+    @NonNull
+    public static AnimOptions downgrade(@NonNull AnimOptions options, @TransitionQuality int quality) {
+        if (quality == TransitionQuality.FULL) {
+            return options;
+        }
+        AnimOptions.Builder builder = options.buildUpon()
+                .overlay(false)
+                .overlayIntensity(0)
+                .fade(false)
+                .scale(false);
+        int style = options.getAnimStyle();
+        if (options.getAnimType() == AnimType.ANIMATION) {
+            // composite styles fade one side, only plain styles are kept
+            boolean composite = style >= AnimationStyle.CUBE_MOVE;
+            boolean depth = style != AnimationStyle.NONE && style != AnimationStyle.MOVE;
+            if (composite || (quality == TransitionQuality.LOW && depth)) {
+                builder.style(AnimationStyle.MOVE);
+            }
+        } else if (quality == TransitionQuality.LOW && style == AnimatorStyle.CIRCULAR_REVEAL) {
+            builder.style(AnimatorStyle.FADE);
+        }
+        return builder.build();
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int lowRamQuality = TransitionQuality.LOW;
+        private int batterySaverQuality = TransitionQuality.REDUCED;
+        private int thermalStatus = PowerManager.THERMAL_STATUS_SEVERE;
+        private int thermalQuality = TransitionQuality.LOW;
+        private float jankRatio = 0.25f;
+        private int jankWindow = 4;
+        private int jankQuality = TransitionQuality.REDUCED;
+        private OnQualityDecisionListener listener;
+
+        private Builder() {
+        }
+
+        /**
+         * Quality on devices reporting {@link ActivityManager#isLowRamDevice()}, default {@link TransitionQuality#LOW}.
+         */
+        public Builder lowRamDevice(@TransitionQuality int quality) {
+            this.lowRamQuality = quality;
+            return this;
+        }
+
+        /**
+         * Quality while the battery saver is on, default {@link TransitionQuality#REDUCED}.
+         */
+        public Builder batterySaver(@TransitionQuality int quality) {
+            this.batterySaverQuality = quality;
+            return this;
+        }
+
+        /**
+         * Quality from the given {@link PowerManager#getCurrentThermalStatus()}, api 29 and above.
+         * Default {@link TransitionQuality#LOW} from {@link PowerManager#THERMAL_STATUS_SEVERE}.
+         */
+        public Builder thermalStatus(@IntRange(from = PowerManager.THERMAL_STATUS_LIGHT) int thermalStatus,
+                                     @TransitionQuality int quality) {
+            this.thermalStatus = thermalStatus;
+            this.thermalQuality = quality;
+            return this;
+        }
+
+        /**
+         * Quality when the average ratio of dropped frames over the last tracked transitions
+         * reaches the threshold. Default {@link TransitionQuality#REDUCED} from 0.25 over 4 transitions.
+         */
+        public Builder jank(@FloatRange(from = 0.0f, to = 1.0f) float droppedFrameRatio,
+                            @IntRange(from = 1) int transitions,
+                            @TransitionQuality int quality) {
+            this.jankRatio = droppedFrameRatio;
+            this.jankWindow = transitions;
+            this.jankQuality = quality;
+            return this;
+        }
+
+        /**
+         * Called for every decision, including the ones keeping the requested options.
+         */
+        public Builder listener(@Nullable OnQualityDecisionListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        @NonNull
+        public TransitionQualityPolicy build() {
+            if (jankWindow < 1) {
+                throw new IllegalArgumentException("Jank window must be at least 1 transition.");
+            }
+            return new TransitionQualityPolicy(this);
+        }
+    }
+
+    public static final class Decision {
+        private final AnimOptions requested;
+        private final AnimOptions options;
+        private final int quality;
+        private final int signals;
+
+        Decision(@NonNull AnimOptions requested, @NonNull AnimOptions options, int quality, int signals) {
+            this.requested = requested;
+            this.options = options;
+            this.quality = quality;
+            this.signals = signals;
+        }
+
+        @NonNull
+        public AnimOptions getRequestedOptions() {
+            return requested;
+        }
+
+        @NonNull
+        public AnimOptions getOptions() {
+            return options;
+        }
+
+        @TransitionQuality
+        public int getQuality() {
+            return quality;
+        }
+
+        /**
+         * @return the active signals, combination of the SIGNAL_ flags
+         */
+        public int getSignals() {
+            return signals;
+        }
+
+        public boolean isDowngraded() {
+            return AnimOptions.toOptionsValue(requested) != AnimOptions.toOptionsValue(options);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Decision{quality=" + quality + ", signals=" + signals
+                    + ", requested=" + AnimOptions.toOptionsValue(requested)
+                    + ", options=" + AnimOptions.toOptionsValue(options) + "}";
+        }
+    }
+
+    public interface OnQualityDecisionListener {
+        void onQualityDecision(@NonNull Decision decision);
+    }
+
+    /**
+     * Count the frames missed between two frame callbacks while the transition runs.
+     */
+    private class FrameDropTracker implements AnimExtras.AnimExtrasListener, Choreographer.FrameCallback {
+        private final long mFrameIntervalNanos;
+        private long mLastFrameTime;
+        private int mFrames;
+        private int mDropped;
+        private boolean mRunning;
+
+        FrameDropTracker(float refreshRate) {
+            this.mFrameIntervalNanos = (long) (1_000_000_000 / Math.max(refreshRate, 1.0f));
+        }
+
+        @Override
+        public void onAnimationStart(@NonNull AnimExtras animExtras) {
+            mRunning = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void onAnimationEnd(@NonNull AnimExtras animExtras) {
+            if (!mRunning) {
+                return;
+            }
+            mRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+            if (mFrames > 0) {
+                addDroppedFrameRatio(mDropped / (float) (mFrames + mDropped));
+            }
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!mRunning) {
+                return;
+            }
+            if (mLastFrameTime > 0) {
+                long missed = (frameTimeNanos - mLastFrameTime + mFrameIntervalNanos / 2) / mFrameIntervalNanos - 1;
+                mDropped += (int) Math.max(0, missed);
+                mFrames++;
+            }
+            mLastFrameTime = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.mct.base.ui.transition.animation;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Pure java equivalent of {@link android.graphics.Camera} for the transforms used by
+ * {@link ViewPropertyAnimation}, no JNI call and no allocation.<br/>
+ * Matrices are 3x3 row major arrays, same layout as {@link android.graphics.Matrix#getValues(float[])}.
+ * <p>
+ * The camera looks along +z from its location, the projection of the unit vectors
+ * U = R * (1, 0, 0) and V = R * (0, -1, 0) gives the matrix in closed form (see Skia SkCamera3D):
+ * <pre>
+ *     dot = translateZ - locationZ
+ *     | -lz * Ux / dot   -lz * Vx / dot    lz * lx / dot |
+ *     |  lz * Uy / dot    lz * Vy / dot   -lz * ly / dot |
+ *     |       Uz / dot         Vz / dot        1         |
+ * </pre>
+ * with the location (lx, ly, lz) in points, 72 points per inch.
+ */
+final class Camera3D {
+
+    private static final float POINTS_PER_INCH = 72.0f;
+
+    /**
+     * Same as {@code camera.setLocation(x, y, z); camera.translate(0, 0, translateZ);
+     * camera.rotateX(rotateX); camera.rotateY(rotateY); camera.rotateZ(rotateZ); camera.getMatrix(m)}
+     * on a new {@link android.graphics.Camera}.
+     *
+     * @param out         matrix values, overwritten
+     * @param locationX   camera location in inches
+     * @param locationY   camera location in inches
+     * @param locationZ   camera location in inches, negative
+     * @param translateZ  depth of the view
+     * @param rotateX     degrees
+     * @param rotateY     degrees
+     * @param rotateZ     degrees
+     */
+    static void getMatrix(@NonNull float[] out,
+                          float locationX, float locationY, float locationZ,
+                          float translateZ,
+                          float rotateX, float rotateY, float rotateZ) {
+        final double ax = Math.toRadians(rotateX);
+        final double ay = Math.toRadians(rotateY);
+        final double az = Math.toRadians(rotateZ);
+        final float cx = (float) Math.cos(ax);
+        final float sx = (float) Math.sin(ax);
+        final float cy = (float) Math.cos(ay);
+        final float sy = (float) Math.sin(ay);
+        final float cz = (float) Math.cos(az);
+        final float sz = (float) Math.sin(az);
+
+        // R = Rx * Ry * Rz, Camera rotates around -y for rotateY
+        final float ux = cy * cz;
+        final float uy = cx * sz - sx * sy * cz;
+        final float uz = sx * sz + cx * sy * cz;
+        final float vx = cy * sz;
+        final float vy = -cx * cz - sx * sy * sz;
+        final float vz = -sx * cz + cx * sy * sz;
+
+        final float lx = locationX * POINTS_PER_INCH;
+        final float ly = locationY * POINTS_PER_INCH;
+        final float lz = locationZ * POINTS_PER_INCH;
+        final float dot = translateZ - lz;
+
+        out[0] = -lz * ux / dot;
+        out[1] = -lz * vx / dot;
+        out[2] = lz * lx / dot;
+        out[3] = lz * uy / dot;
+        out[4] = lz * vy / dot;
+        out[5] = -lz * ly / dot;
+        out[6] = uz / dot;
+        out[7] = vz / dot;
+        out[8] = 1.0f;
+    }
+
+    static void setIdentity(@NonNull float[] m) {
+        m[0] = 1.0f;
+        m[1] = 0.0f;
+        m[2] = 0.0f;
+        m[3] = 0.0f;
+        m[4] = 1.0f;
+        m[5] = 0.0f;
+        m[6] = 0.0f;
+        m[7] = 0.0f;
+        m[8] = 1.0f;
+    }
+
+    /**
+     * Same as {@code m.preTranslate(-px, -py); m.postTranslate(px, py)}.
+     */
+    static void aroundPivot(@NonNull float[] m, float px, float py) {
+        m[2] -= m[0] * px + m[1] * py;
+        m[5] -= m[3] * px + m[4] * py;
+        m[8] -= m[6] * px + m[7] * py;
+        postTranslate(m, px, py);
+    }
+
+    /**
+     * Same as {@code m.postScale(sx, sy, px, py)}.
+     */
+    static void postScale(@NonNull float[] m, float sx, float sy, float px, float py) {
+        for (int i = 0; i < 3; i++) {
+            m[i] = m[i] * sx + m[6 + i] * (px - sx * px);
+            m[3 + i] = m[3 + i] * sy + m[6 + i] * (py - sy * py);
+        }
+    }
+
+    /**
+     * Same as {@code m.postTranslate(dx, dy)}.
+     */
+    static void postTranslate(@NonNull float[] m, float dx, float dy) {
+        for (int i = 0; i < 3; i++) {
+            m[i] += dx * m[6 + i];
+            m[3 + i] += dy * m[6 + i];
+        }
+    }
+
+    private Camera3D() {
+        //no instance
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.mct.base.ui.transition.animation;
+
+import android.view.animation.Transformation;
+
+import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.transition.annotation.AnimDirection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Animation made of transform layers (move, cube, flip, push/pull, sides, fade, scale).<br/>
+ * Layers write the properties of this animation, then a single matrix and alpha is computed
+ * per frame, a combination of layers costs no more than one style.
+ * <pre>
+ *     ComposedAnimation.builder(enter, duration)
+ *             .cube(AnimDirection.LEFT)
+ *             .fade(1.0f, 0.3f)
+ *             .build();
+ * </pre>
+ */
+public class ComposedAnimation extends ViewPropertyAnimation {
+
+    private static final TransformLayer[] NO_LAYER = new TransformLayer[0];
+
+    private TransformLayer[] mLayers = NO_LAYER;
+
+    @NonNull
+    public static Builder builder(boolean enter, long duration) {
+        return new Builder(enter, duration);
+    }
+
+    protected ComposedAnimation(long duration) {
+        setDuration(duration);
+    }
+
+    @Override
+    public ComposedAnimation fading(@FloatRange(from = 0.0f, to = 1.0f) float fromAlpha, @FloatRange(from = 0.0f, to = 1.0f) float toAlpha) {
+        addLayer(new TransformLayer.Fade(fromAlpha, toAlpha));
+        return this;
+    }
+
+    void addLayer(@NonNull TransformLayer layer) {
+        mLayers = Arrays.copyOf(mLayers, mLayers.length + 1);
+        mLayers[mLayers.length - 1] = layer;
+    }
+
+    @Override
+    public void initialize(int width, int height, int parentWidth, int parentHeight) {
+        super.initialize(width, height, parentWidth, parentHeight);
+        for (TransformLayer layer : mLayers) {
+            layer.initialize(this);
+        }
+    }
+
+    @Override
+    protected void applyTransformation(float interpolatedTime, Transformation t) {
+        mAlpha = 1.0f;
+        mScaleX = 1.0f;
+        mScaleY = 1.0f;
+        mRotationX = 0.0f;
+        mRotationY = 0.0f;
+        mRotationZ = 0.0f;
+        mTranslationX = 0.0f;
+        mTranslationY = 0.0f;
+        mTranslationZ = 0.0f;
+        for (TransformLayer layer : mLayers) {
+            layer.apply(this, interpolatedTime);
+        }
+        applyTransformation(t);
+    }
+
+    public static final class Builder {
+        private final boolean enter;
+        private final long duration;
+        private final List<TransformLayer> layers = new ArrayList<>(3);
+
+        private Builder(boolean enter, long duration) {
+            this.enter = enter;
+            this.duration = duration;
+        }
+
+        public Builder move(@AnimDirection int direction) {
+            layers.add(new TransformLayer.Move(direction, enter));
+            return this;
+        }
+
+        public Builder cube(@AnimDirection int direction) {
+            layers.add(new TransformLayer.Cube(direction, enter));
+            return this;
+        }
+
+        public Builder flip(@AnimDirection int direction) {
+            layers.add(new TransformLayer.Flip(direction, enter));
+            return this;
+        }
+
+        public Builder pushPull(@AnimDirection int direction) {
+            layers.add(new TransformLayer.PushPull(direction, enter));
+            return this;
+        }
+
+        public Builder sides(@AnimDirection int direction) {
+            layers.add(new TransformLayer.Sides(direction, enter));
+            return this;
+        }
+
+        public Builder fade(@FloatRange(from = 0.0f, to = 1.0f) float fromAlpha, @FloatRange(from = 0.0f, to = 1.0f) float toAlpha) {
+            layers.add(new TransformLayer.Fade(fromAlpha, toAlpha));
+            return this;
+        }
+
+        /**
+         * Scale around the view center.
+         */
+        public Builder scale(float fromScale, float toScale) {
+            layers.add(new TransformLayer.Scale(fromScale, toScale));
+            return this;
+        }
+
+        /**
+         * Remove the layers added so far, to replace the layers of a style.
+         */
+        public Builder clear() {
+            layers.clear();
+            return this;
+        }
+
+        @NonNull
+        public ComposedAnimation build() {
+            ComposedAnimation animation = new ComposedAnimation(duration);
+            animation.mLayers = layers.toArray(NO_LAYER);
+            return animation;
+        }
+    }
+
+}
@@ -1,13 +1,5 @@
 package com.mct.base.ui.transition.animation;
 
-import static com.mct.base.ui.transition.annotation.AnimDirection.DOWN;
-import static com.mct.base.ui.transition.annotation.AnimDirection.LEFT;
-import static com.mct.base.ui.transition.annotation.AnimDirection.NONE;
-import static com.mct.base.ui.transition.annotation.AnimDirection.RIGHT;
-import static com.mct.base.ui.transition.annotation.AnimDirection.UP;
-
-import android.view.animation.Transformation;
-
 import androidx.annotation.NonNull;
 
 import com.mct.base.ui.transition.annotation.AnimDirection;
@@ -15,7 +7,7 @@ import com.mct.base.ui.transition.annotation.AnimDirection;
 /**
  * Move Animation
  */
-public class MoveAnimation extends ViewPropertyAnimation {
+public class MoveAnimation extends ComposedAnimation {
 
     protected final @AnimDirection int mDirection;
     protected final boolean mEnter;
@@ -29,58 +21,14 @@ public class MoveAnimation extends ViewPropertyAnimation {
      * @return MoveAnimation
      */
     public static @NonNull MoveAnimation create(@AnimDirection int direction, boolean enter, long duration) {
-        switch (direction) {
-            case UP:
-            case DOWN:
-                return new VerticalMoveAnimation(direction, enter, duration);
-            case LEFT:
-            case RIGHT:
-            case NONE:
-            default:
-                return new HorizontalMoveAnimation(direction, enter, duration);
-        }
+        return new MoveAnimation(direction, enter, duration);
     }
 
     private MoveAnimation(@AnimDirection int direction, boolean enter, long duration) {
+        super(duration);
         mDirection = direction;
         mEnter = enter;
-        setDuration(duration);
-    }
-
-    private static class VerticalMoveAnimation extends MoveAnimation {
-
-        private VerticalMoveAnimation(@AnimDirection int direction, boolean enter, long duration) {
-            super(direction, enter, duration);
-        }
-
-        @Override
-        protected void applyTransformation(float interpolatedTime, Transformation t) {
-            float value = mEnter ? (interpolatedTime - 1.0f) : interpolatedTime;
-            if (mDirection == DOWN) value *= -1.0f;
-            mTranslationY = -value * mHeight;
-
-            super.applyTransformation(interpolatedTime, t);
-            applyTransformation(t);
-        }
-
-    }
-
-    private static class HorizontalMoveAnimation extends MoveAnimation {
-
-        private HorizontalMoveAnimation(@AnimDirection int direction, boolean enter, long duration) {
-            super(direction, enter, duration);
-        }
-
-        @Override
-        protected void applyTransformation(float interpolatedTime, Transformation t) {
-            float value = mEnter ? (interpolatedTime - 1.0f) : interpolatedTime;
-            if (mDirection == RIGHT) value *= -1.0f;
-            mTranslationX = -value * mWidth;
-
-            super.applyTransformation(interpolatedTime, t);
-            applyTransformation(t);
-        }
-
+        addLayer(new TransformLayer.Move(direction, enter));
     }
 
-}
\ No newline at end of file
+}
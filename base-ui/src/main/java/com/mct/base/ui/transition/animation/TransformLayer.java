@@ -0,0 +1,238 @@
+package com.mct.base.ui.transition.animation;
+
+import static com.mct.base.ui.transition.annotation.AnimDirection.DOWN;
+import static com.mct.base.ui.transition.annotation.AnimDirection.LEFT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.RIGHT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.UP;
+
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.transition.annotation.AnimDirection;
+
+/**
+ * One transform of a {@link ComposedAnimation}. Layers add to the translations and rotations
+ * and multiply the alpha and scale of the animation, the pivot and camera are set once by
+ * {@link #initialize(ComposedAnimation)}, the last layer wins.
+ */
+abstract class TransformLayer {
+
+    /**
+     * Called when the size of the view is known.
+     */
+    void initialize(@NonNull ComposedAnimation a) {
+    }
+
+    abstract void apply(@NonNull ComposedAnimation a, float interpolatedTime);
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Layers
+    ///////////////////////////////////////////////////////////////////////////
+
+    static abstract class DirectionLayer extends TransformLayer {
+
+        protected final @AnimDirection int mDirection;
+        protected final boolean mEnter;
+        protected final boolean mVertical;
+
+        DirectionLayer(@AnimDirection int direction, boolean enter) {
+            mDirection = direction;
+            mEnter = enter;
+            mVertical = direction == UP || direction == DOWN;
+        }
+
+        /**
+         * @return enter from -1 to 0 and exit from 0 to 1, reversed for the given direction
+         */
+        protected float progress(float interpolatedTime, @AnimDirection int reverseDirection) {
+            float value = mEnter ? (interpolatedTime - 1.0f) : interpolatedTime;
+            return mDirection == reverseDirection ? -value : value;
+        }
+    }
+
+    static final class Move extends DirectionLayer {
+
+        Move(int direction, boolean enter) {
+            super(direction, enter);
+        }
+
+        @Override
+        void apply(@NonNull ComposedAnimation a, float interpolatedTime) {
+            if (mVertical) {
+                a.mTranslationY -= progress(interpolatedTime, DOWN) * a.mHeight;
+            } else {
+                a.mTranslationX -= progress(interpolatedTime, RIGHT) * a.mWidth;
+            }
+        }
+    }
+
+    static final class Cube extends DirectionLayer {
+
+        Cube(int direction, boolean enter) {
+            super(direction, enter);
+        }
+
+        @Override
+        void initialize(@NonNull ComposedAnimation a) {
+            if (mVertical) {
+                a.mPivotX = a.mWidth * 0.5f;
+                a.mPivotY = (mEnter == (mDirection == UP)) ? 0.0f : a.mHeight;
+                a.mCameraZ = -a.mHeight * 0.015f;
+            } else {
+                a.mPivotX = (mEnter == (mDirection == LEFT)) ? 0.0f : a.mWidth;
+                a.mPivotY = a.mHeight * 0.5f;
+                a.mCameraZ = -a.mWidth * 0.015f;
+            }
+        }
+
+        @Override
+        void apply(@NonNull ComposedAnimation a, float interpolatedTime) {
+            if (mVertical) {
+                float value = progress(interpolatedTime, DOWN);
+                a.mRotationX += value * 90.0f;
+                a.mTranslationY -= value * a.mHeight;
+            } else {
+                float value = progress(interpolatedTime, RIGHT);
+                a.mRotationY -= value * 90.0f;
+                a.mTranslationX -= value * a.mWidth;
+            }
+        }
+    }
+
+    static final class Flip extends DirectionLayer {
+
+        Flip(int direction, boolean enter) {
+            super(direction, enter);
+        }
+
+        @Override
+        void initialize(@NonNull ComposedAnimation a) {
+            if (mVertical) {
+                a.mPivotX = a.mWidth * 0.5f;
+                a.mPivotY = (mEnter == (mDirection == UP)) ? 0.0f : a.mHeight;
+                a.mCameraZ = -a.mHeight * 0.015f;
+            } else {
+                a.mPivotX = (mEnter == (mDirection == LEFT)) ? 0.0f : a.mWidth;
+                a.mPivotY = a.mHeight * 0.5f;
+                a.mCameraZ = -a.mWidth * 0.015f;
+            }
+        }
+
+        @Override
+        void apply(@NonNull ComposedAnimation a, float interpolatedTime) {
+            if (mVertical) {
+                float value = progress(interpolatedTime, DOWN);
+                a.mRotationX += value * 180.0f;
+                a.mTranslationY -= value * a.mHeight;
+            } else {
+                float value = progress(interpolatedTime, RIGHT);
+                a.mRotationY -= value * 180.0f;
+                a.mTranslationX -= value * a.mWidth;
+            }
+            // Hide entering/exiting view before/after half point.
+            boolean visible = mEnter ? interpolatedTime > 0.5f : interpolatedTime <= 0.5f;
+            if (!visible) {
+                a.mAlpha = 0.0f;
+            }
+        }
+    }
+
+    static final class PushPull extends DirectionLayer {
+
+        PushPull(int direction, boolean enter) {
+            super(direction, enter);
+        }
+
+        @Override
+        void initialize(@NonNull ComposedAnimation a) {
+            if (mVertical) {
+                a.mPivotX = a.mWidth * 0.5f;
+                a.mPivotY = (mEnter == (mDirection == DOWN)) ? 0.0f : a.mHeight;
+            } else {
+                a.mPivotX = (mEnter == (mDirection == RIGHT)) ? 0.0f : a.mWidth;
+                a.mPivotY = a.mHeight * 0.5f;
+            }
+        }
+
+        @Override
+        void apply(@NonNull ComposedAnimation a, float interpolatedTime) {
+            if (mVertical) {
+                a.mRotationX += progress(interpolatedTime, UP) * 90.0f;
+            } else {
+                a.mRotationY -= progress(interpolatedTime, LEFT) * 90.0f;
+            }
+            a.mAlpha *= mEnter ? interpolatedTime : (1.0f - interpolatedTime);
+        }
+    }
+
+    static final class Sides extends DirectionLayer {
+
+        Sides(int direction, boolean enter) {
+            super(direction, enter);
+        }
+
+        @Override
+        void initialize(@NonNull ComposedAnimation a) {
+            if (mVertical) {
+                a.mPivotX = a.mWidth * 0.5f;
+                a.mPivotY = (mEnter == (mDirection == DOWN)) ? 0.0f : a.mHeight;
+            } else {
+                a.mPivotX = (mEnter == (mDirection == RIGHT)) ? 0.0f : a.mWidth;
+                a.mPivotY = a.mHeight * 0.5f;
+            }
+        }
+
+        @Override
+        void apply(@NonNull ComposedAnimation a, float interpolatedTime) {
+            float alpha = mEnter ? interpolatedTime : (1.0f - interpolatedTime);
+            if (mVertical) {
+                a.mRotationX += progress(interpolatedTime, UP) * 90.0f;
+                a.mTranslationZ += (1.0f - alpha) * a.mWidth;
+            } else {
+                a.mRotationY -= progress(interpolatedTime, LEFT) * 90.0f;
+                a.mTranslationZ += (1.0f - alpha) * a.mHeight;
+            }
+            a.mAlpha *= alpha;
+        }
+    }
+
+    static final class Fade extends TransformLayer {
+
+        private final float mFrom;
+        private final float mTo;
+
+        Fade(float from, float to) {
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        void apply(@NonNull ComposedAnimation a, float interpolatedTime) {
+            a.mAlpha *= mFrom + (mTo - mFrom) * interpolatedTime;
+        }
+    }
+
+    /**
+     * Scale around the view center whatever the pivot of the other layers.
+     */
+    static final class Scale extends TransformLayer {
+
+        private final float mFrom;
+        private final float mTo;
+
+        Scale(float from, float to) {
+            mFrom = from;
+            mTo = to;
+        }
+
+        @Override
+        void apply(@NonNull ComposedAnimation a, float interpolatedTime) {
+            float scale = mFrom + (mTo - mFrom) * interpolatedTime;
+            a.mScaleX *= scale;
+            a.mScaleY *= scale;
+            // move the scale from the shared pivot to the center
+            a.mTranslationX += (1.0f - scale) * (a.mWidth * 0.5f - a.mPivotX);
+            a.mTranslationY += (1.0f - scale) * (a.mHeight * 0.5f - a.mPivotY);
+        }
+    }
+
+}
@@ -1,8 +1,7 @@
 package com.mct.base.ui.transition.animation;
 
-import android.graphics.Camera;
-import android.graphics.Matrix;
 import android.view.animation.Animation;
+import android.view.animation.Interpolator;
 import android.view.animation.Transformation;
 
 import androidx.annotation.FloatRange;
@@ -10,7 +9,7 @@ import androidx.annotation.NonNull;
 
 public class ViewPropertyAnimation extends Animation {
 
-    private final Camera mCamera = new Camera();
+    private final float[] mMatrixValues = new float[9];
     protected int mWidth = 0;
     protected int mHeight = 0;
     protected float mAlpha = 1.0f;
@@ -52,10 +51,18 @@ public class ViewPropertyAnimation extends Animation {
         }
     }
 
+    /**
+     * Transformation at this fraction of the animation, without running it.<br/>
+     * The animation must be initialized with the size of its view.
+     */
+    public void getTransformationAt(@FloatRange(from = 0.0f, to = 1.0f) float fraction, @NonNull Transformation t) {
+        Interpolator interpolator = getInterpolator();
+        t.clear();
+        applyTransformation(interpolator != null ? interpolator.getInterpolation(fraction) : fraction, t);
+    }
+
     protected void applyTransformation(@NonNull Transformation t) {
-        final Matrix m = t.getMatrix();
-        final float w = mWidth;
-        final float h = mHeight;
+        final float[] m = mMatrixValues;
         final float pX = mPivotX;
         final float pY = mPivotY;
 
@@ -63,32 +70,21 @@ public class ViewPropertyAnimation extends Animation {
         final float rY = mRotationY;
         final float rZ = mRotationZ;
         if ((rX != 0) || (rY != 0) || (rZ != 0)) {
-            final Camera camera = mCamera;
-            camera.save();
-            camera.setLocation(mCameraX, mCameraY, mCameraZ);
-            if (mTranslationZ != 0) {
-                camera.translate(0, 0, mTranslationZ);
-            }
-            camera.rotateX(rX);
-            camera.rotateY(rY);
-            camera.rotateZ(-rZ);
-            camera.getMatrix(m);
-            camera.restore();
-            m.preTranslate(-pX, -pY);
-            m.postTranslate(pX, pY);
+            Camera3D.getMatrix(m, mCameraX, mCameraY, mCameraZ, mTranslationZ, rX, rY, -rZ);
+            Camera3D.aroundPivot(m, pX, pY);
+        } else {
+            Camera3D.setIdentity(m);
         }
 
         final float sX = mScaleX;
         final float sY = mScaleY;
         if ((sX != 1.0f) || (sY != 1.0f)) {
-            m.postScale(sX, sY);
-            final float sPX = -(pX / w) * ((sX * w) - w);
-            final float sPY = -(pY / h) * ((sY * h) - h);
-            m.postTranslate(sPX, sPY);
+            Camera3D.postScale(m, sX, sY, pX, pY);
         }
 
-        m.postTranslate(mTranslationX, mTranslationY);
+        Camera3D.postTranslate(m, mTranslationX, mTranslationY);
 
+        t.getMatrix().setValues(m);
         t.setAlpha(mAlpha);
     }
 
@@ -0,0 +1,90 @@
+package com.mct.base.ui.transition.animator;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+import android.os.Build;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.transition.annotation.AnimDirection;
+
+/**
+ * Base of the 3D animators, view property equivalents of the {@code Camera} based animations
+ * in {@link com.mct.base.ui.transition.animation}.<br/>
+ * Only RenderNode properties (rotation, pivot, camera distance, translation, scale, alpha) change
+ * on each frame, the view content is not drawn again. The animator resets these properties
+ * (pivot and camera distance included) when it ends or is cancelled, so the view runs any
+ * other animation or layout with its default properties.
+ */
+public abstract class Camera3DAnimator extends ViewPropertyAnimator {
+
+    // default interpolator of Animation
+    private static final AccelerateDecelerateInterpolator INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
+    /**
+     * Default {@code Camera} location, in inches.
+     */
+    protected static final float DEFAULT_CAMERA_LOCATION_Z = -8.0f;
+
+    protected final @AnimDirection int mDirection;
+    protected final boolean mEnter;
+
+    public Camera3DAnimator(View view, @AnimDirection int direction, boolean enter, long duration) {
+        super(view);
+        mDirection = direction;
+        mEnter = enter;
+        setDuration(duration);
+        setInterpolator(INTERPOLATOR);
+    }
+
+    @Override
+    protected void initialAnimator(View target, AnimatorSet animator) {
+        super.initialAnimator(target, animator);
+        animator.addListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationCancel(Animator animation) {
+                resetProperties(target);
+            }
+
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                resetProperties(target);
+            }
+        });
+    }
+
+    /**
+     * @param reverseDirection direction running the animation backward
+     * @return progress at start and end, enter from -1 to 0 and exit from 0 to 1
+     */
+    @NonNull
+    protected float[] getProgress(@AnimDirection int reverseDirection) {
+        float sign = mDirection == reverseDirection ? -1.0f : 1.0f;
+        return mEnter ? new float[]{-sign, 0.0f} : new float[]{0.0f, sign};
+    }
+
+    /**
+     * Same as {@code Camera.setLocation(0, 0, z)} of the legacy animations.
+     */
+    protected static void setCameraLocation(@NonNull View target, float z) {
+        target.setCameraDistance(Math.abs(z) * target.getResources().getDisplayMetrics().densityDpi);
+    }
+
+    private static void resetProperties(@NonNull View target) {
+        target.setRotationX(0.0f);
+        target.setRotationY(0.0f);
+        target.setTranslationX(0.0f);
+        target.setTranslationY(0.0f);
+        target.setScaleX(1.0f);
+        target.setScaleY(1.0f);
+        target.setAlpha(1.0f);
+        setCameraLocation(target, DEFAULT_CAMERA_LOCATION_Z);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            target.resetPivot();
+        }
+    }
+
+}
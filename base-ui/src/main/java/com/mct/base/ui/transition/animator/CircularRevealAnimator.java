@@ -11,6 +11,9 @@ import androidx.annotation.NonNull;
 
 public class CircularRevealAnimator extends ViewPropertyAnimator {
 
+    private static final AccelerateInterpolator IN_INTERPOLATOR = new AccelerateInterpolator(1f);
+    private static final DecelerateInterpolator OUT_INTERPOLATOR = new DecelerateInterpolator(1f);
+
     protected final boolean mEnter;
     protected final int mCenterX;
     protected final int mCenterY;
@@ -40,6 +43,14 @@ public class CircularRevealAnimator extends ViewPropertyAnimator {
         setDuration(duration);
     }
 
+    /**
+     * The reveal animator is created from the attached view.
+     */
+    @Override
+    protected boolean canStartDetached() {
+        return false;
+    }
+
     private static class CircularRevealInAnimator extends CircularRevealAnimator {
 
         public CircularRevealInAnimator(View view, boolean enter, int duration, int centerX, int centerY) {
@@ -49,11 +60,10 @@ public class CircularRevealAnimator extends ViewPropertyAnimator {
         @Override
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
-            View parent = getTargetParent();
-            int endRadius = (int) Math.hypot(parent.getWidth(), parent.getHeight());
+            int endRadius = (int) Math.hypot(getContainerWidth(), getContainerHeight());
             Animator circularReveal = ViewAnimationUtils.createCircularReveal(target, mCenterX, mCenterY, 0f, endRadius);
             animator.play(circularReveal);
-            animator.setInterpolator(new AccelerateInterpolator(1f));
+            animator.setInterpolator(IN_INTERPOLATOR);
         }
     }
 
@@ -66,11 +76,10 @@ public class CircularRevealAnimator extends ViewPropertyAnimator {
         @Override
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
-            View parent = getTargetParent();
-            int startRadius = (int) Math.hypot(parent.getWidth(), parent.getHeight());
+            int startRadius = (int) Math.hypot(getContainerWidth(), getContainerHeight());
             Animator circularReveal = ViewAnimationUtils.createCircularReveal(target, mCenterX, mCenterY, startRadius, 0f);
             animator.play(circularReveal);
-            animator.setInterpolator(new DecelerateInterpolator(1f));
+            animator.setInterpolator(OUT_INTERPOLATOR);
         }
     }
 
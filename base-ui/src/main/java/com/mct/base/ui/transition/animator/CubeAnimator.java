@@ -0,0 +1,90 @@
+package com.mct.base.ui.transition.animator;
+
+import static com.mct.base.ui.transition.annotation.AnimDirection.DOWN;
+import static com.mct.base.ui.transition.annotation.AnimDirection.LEFT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.NONE;
+import static com.mct.base.ui.transition.annotation.AnimDirection.RIGHT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.UP;
+
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.transition.annotation.AnimDirection;
+
+/**
+ * 3D Cube Animator, see {@link com.mct.base.ui.transition.animation.CubeAnimation}
+ */
+public class CubeAnimator extends Camera3DAnimator {
+
+    /**
+     * Create new Animator.
+     *
+     * @param view      Target of animator
+     * @param direction Direction of animator
+     * @param enter     true for Enter / false for Exit
+     * @param duration  Duration of animator
+     * @return CubeAnimator
+     */
+    public static @NonNull CubeAnimator create(View view, @AnimDirection int direction, boolean enter, long duration) {
+        switch (direction) {
+            case UP:
+            case DOWN:
+                return new VerticalCubeAnimator(view, direction, enter, duration);
+            case LEFT:
+            case RIGHT:
+            case NONE:
+            default:
+                return new HorizontalCubeAnimator(view, direction, enter, duration);
+        }
+    }
+
+    private CubeAnimator(View view, @AnimDirection int direction, boolean enter, long duration) {
+        super(view, direction, enter, duration);
+    }
+
+    private static class VerticalCubeAnimator extends CubeAnimator {
+
+        private VerticalCubeAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            float height = getTargetHeight(target);
+            target.setPivotX(getTargetWidth(target) * 0.5f);
+            target.setPivotY((mEnter == (mDirection == UP)) ? 0.0f : height);
+            setCameraLocation(target, -height * 0.015f);
+            float[] value = getProgress(DOWN);
+            animator.playTogether(
+                    ObjectAnimator.ofFloat(target, View.ROTATION_X, value[0] * 90.0f, value[1] * 90.0f),
+                    ObjectAnimator.ofFloat(target, View.TRANSLATION_Y, -value[0] * height, -value[1] * height)
+            );
+        }
+    }
+
+    private static class HorizontalCubeAnimator extends CubeAnimator {
+
+        private HorizontalCubeAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            float width = getTargetWidth(target);
+            target.setPivotX((mEnter == (mDirection == LEFT)) ? 0.0f : width);
+            target.setPivotY(getTargetHeight(target) * 0.5f);
+            setCameraLocation(target, -width * 0.015f);
+            float[] value = getProgress(RIGHT);
+            animator.playTogether(
+                    ObjectAnimator.ofFloat(target, View.ROTATION_Y, -value[0] * 90.0f, -value[1] * 90.0f),
+                    ObjectAnimator.ofFloat(target, View.TRANSLATION_X, -value[0] * width, -value[1] * width)
+            );
+        }
+    }
+
+}
@@ -42,7 +42,7 @@ public class FadeAnimator extends ViewPropertyAnimator {
         @Override
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
-            ObjectAnimator alphaAnimator = ObjectAnimator.ofFloat(target, "alpha", 0f, 1f);
+            ObjectAnimator alphaAnimator = ObjectAnimator.ofFloat(target, View.ALPHA, 0f, 1f);
             animator.play(alphaAnimator);
         }
     }
@@ -56,7 +56,7 @@ public class FadeAnimator extends ViewPropertyAnimator {
         @Override
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
-            ObjectAnimator alphaAnimator = ObjectAnimator.ofFloat(target, "alpha", 1f, 0f);
+            ObjectAnimator alphaAnimator = ObjectAnimator.ofFloat(target, View.ALPHA, 1f, 0f);
             animator.play(alphaAnimator);
         }
     }
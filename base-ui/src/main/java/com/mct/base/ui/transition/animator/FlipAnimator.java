@@ -0,0 +1,119 @@
+package com.mct.base.ui.transition.animator;
+
+import static com.mct.base.ui.transition.annotation.AnimDirection.DOWN;
+import static com.mct.base.ui.transition.annotation.AnimDirection.LEFT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.NONE;
+import static com.mct.base.ui.transition.annotation.AnimDirection.RIGHT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.UP;
+
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.util.FloatProperty;
+import android.util.Property;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.transition.annotation.AnimDirection;
+
+/**
+ * 3D Flip Animator, see {@link com.mct.base.ui.transition.animation.FlipAnimation}
+ */
+public class FlipAnimator extends Camera3DAnimator {
+
+    // Hide the back face of the view, entering/exiting view before/after half point.
+    private static final Property<View, Float> FLIP_ROTATION_X = new FloatProperty<View>("flipRotationX") {
+        @Override
+        public void setValue(@NonNull View view, float value) {
+            view.setRotationX(value);
+            view.setAlpha(Math.abs(value) < 90.0f ? 1.0f : 0.0f);
+        }
+
+        @Override
+        public Float get(@NonNull View view) {
+            return view.getRotationX();
+        }
+    };
+
+    private static final Property<View, Float> FLIP_ROTATION_Y = new FloatProperty<View>("flipRotationY") {
+        @Override
+        public void setValue(@NonNull View view, float value) {
+            view.setRotationY(value);
+            view.setAlpha(Math.abs(value) < 90.0f ? 1.0f : 0.0f);
+        }
+
+        @Override
+        public Float get(@NonNull View view) {
+            return view.getRotationY();
+        }
+    };
+
+    /**
+     * Create new Animator.
+     *
+     * @param view      Target of animator
+     * @param direction Direction of animator
+     * @param enter     true for Enter / false for Exit
+     * @param duration  Duration of animator
+     * @return FlipAnimator
+     */
+    public static @NonNull FlipAnimator create(View view, @AnimDirection int direction, boolean enter, long duration) {
+        switch (direction) {
+            case UP:
+            case DOWN:
+                return new VerticalFlipAnimator(view, direction, enter, duration);
+            case LEFT:
+            case RIGHT:
+            case NONE:
+            default:
+                return new HorizontalFlipAnimator(view, direction, enter, duration);
+        }
+    }
+
+    private FlipAnimator(View view, @AnimDirection int direction, boolean enter, long duration) {
+        super(view, direction, enter, duration);
+    }
+
+    private static class VerticalFlipAnimator extends FlipAnimator {
+
+        private VerticalFlipAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            float height = getTargetHeight(target);
+            target.setPivotX(getTargetWidth(target) * 0.5f);
+            target.setPivotY((mEnter == (mDirection == UP)) ? 0.0f : height);
+            setCameraLocation(target, -height * 0.015f);
+            float[] value = getProgress(DOWN);
+            animator.playTogether(
+                    ObjectAnimator.ofFloat(target, FLIP_ROTATION_X, value[0] * 180.0f, value[1] * 180.0f),
+                    ObjectAnimator.ofFloat(target, View.TRANSLATION_Y, -value[0] * height, -value[1] * height)
+            );
+        }
+    }
+
+    private static class HorizontalFlipAnimator extends FlipAnimator {
+
+        private HorizontalFlipAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            float width = getTargetWidth(target);
+            target.setPivotX((mEnter == (mDirection == LEFT)) ? 0.0f : width);
+            target.setPivotY(getTargetHeight(target) * 0.5f);
+            setCameraLocation(target, -width * 0.015f);
+            float[] value = getProgress(RIGHT);
+            animator.playTogether(
+                    ObjectAnimator.ofFloat(target, FLIP_ROTATION_Y, -value[0] * 180.0f, -value[1] * 180.0f),
+                    ObjectAnimator.ofFloat(target, View.TRANSLATION_X, -value[0] * width, -value[1] * width)
+            );
+        }
+    }
+
+}
@@ -17,6 +17,8 @@ import com.mct.base.ui.transition.annotation.AnimDirection;
 
 public class MoveAnimator extends ViewPropertyAnimator {
 
+    private static final AccelerateDecelerateInterpolator INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
     protected final @AnimDirection int mDirection;
     protected final boolean mEnter;
 
@@ -47,7 +49,7 @@ public class MoveAnimator extends ViewPropertyAnimator {
         mDirection = direction;
         mEnter = enter;
         setDuration(duration);
-        setInterpolator(new AccelerateDecelerateInterpolator());
+        setInterpolator(INTERPOLATOR);
     }
 
     private static class VerticalMoveAnimator extends MoveAnimator {
@@ -59,10 +61,10 @@ public class MoveAnimator extends ViewPropertyAnimator {
         @Override
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
-            int value = getTargetParent().getHeight();
+            int value = getContainerHeight();
             animator.play(mDirection == UP
-                    ? ObjectAnimator.ofFloat(target, "translationY", mEnter ? value : 0, mEnter ? 0 : -value)
-                    : ObjectAnimator.ofFloat(target, "translationY", mEnter ? -value : 0, mEnter ? 0 : value));
+                    ? ObjectAnimator.ofFloat(target, View.TRANSLATION_Y, mEnter ? value : 0, mEnter ? 0 : -value)
+                    : ObjectAnimator.ofFloat(target, View.TRANSLATION_Y, mEnter ? -value : 0, mEnter ? 0 : value));
         }
     }
 
@@ -75,10 +77,10 @@ public class MoveAnimator extends ViewPropertyAnimator {
         @Override
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
-            int value = getTargetParent().getWidth();
+            int value = getContainerWidth();
             animator.play(mDirection == LEFT
-                    ? ObjectAnimator.ofFloat(target, "translationX", mEnter ? value : 0, mEnter ? 0 : -value)
-                    : ObjectAnimator.ofFloat(target, "translationX", mEnter ? -value : 0, mEnter ? 0 : value));
+                    ? ObjectAnimator.ofFloat(target, View.TRANSLATION_X, mEnter ? value : 0, mEnter ? 0 : -value)
+                    : ObjectAnimator.ofFloat(target, View.TRANSLATION_X, mEnter ? -value : 0, mEnter ? 0 : value));
         }
     }
 
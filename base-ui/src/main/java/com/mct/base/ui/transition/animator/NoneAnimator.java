@@ -21,6 +21,6 @@ public class NoneAnimator extends ViewPropertyAnimator {
     @Override
     protected void initialAnimator(View target, AnimatorSet animator) {
         super.initialAnimator(target, animator);
-        animator.play(ObjectAnimator.ofFloat(target, "alpha", 1, 1));
+        animator.play(ObjectAnimator.ofFloat(target, View.ALPHA, 1, 1));
     }
 }
@@ -0,0 +1,88 @@
+package com.mct.base.ui.transition.animator;
+
+import static com.mct.base.ui.transition.annotation.AnimDirection.DOWN;
+import static com.mct.base.ui.transition.annotation.AnimDirection.LEFT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.NONE;
+import static com.mct.base.ui.transition.annotation.AnimDirection.RIGHT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.UP;
+
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.transition.annotation.AnimDirection;
+
+/**
+ * 3D Push/Pull Animator, see {@link com.mct.base.ui.transition.animation.PushPullAnimation}
+ */
+public class PushPullAnimator extends Camera3DAnimator {
+
+    /**
+     * Create new Animator.
+     *
+     * @param view      Target of animator
+     * @param direction Direction of animator
+     * @param enter     true for Enter / false for Exit
+     * @param duration  Duration of animator
+     * @return PushPullAnimator
+     */
+    public static @NonNull PushPullAnimator create(View view, @AnimDirection int direction, boolean enter, long duration) {
+        switch (direction) {
+            case UP:
+            case DOWN:
+                return new VerticalPushPullAnimator(view, direction, enter, duration);
+            case LEFT:
+            case RIGHT:
+            case NONE:
+            default:
+                return new HorizontalPushPullAnimator(view, direction, enter, duration);
+        }
+    }
+
+    private PushPullAnimator(View view, @AnimDirection int direction, boolean enter, long duration) {
+        super(view, direction, enter, duration);
+    }
+
+    private static class VerticalPushPullAnimator extends PushPullAnimator {
+
+        private VerticalPushPullAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            target.setPivotX(getTargetWidth(target) * 0.5f);
+            target.setPivotY((mEnter == (mDirection == DOWN)) ? 0.0f : getTargetHeight(target));
+            setCameraLocation(target, DEFAULT_CAMERA_LOCATION_Z);
+            float[] value = getProgress(UP);
+            animator.playTogether(
+                    ObjectAnimator.ofFloat(target, View.ROTATION_X, value[0] * 90.0f, value[1] * 90.0f),
+                    ObjectAnimator.ofFloat(target, View.ALPHA, mEnter ? 0.0f : 1.0f, mEnter ? 1.0f : 0.0f)
+            );
+        }
+    }
+
+    private static class HorizontalPushPullAnimator extends PushPullAnimator {
+
+        private HorizontalPushPullAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            target.setPivotX((mEnter == (mDirection == RIGHT)) ? 0.0f : getTargetWidth(target));
+            target.setPivotY(getTargetHeight(target) * 0.5f);
+            setCameraLocation(target, DEFAULT_CAMERA_LOCATION_Z);
+            float[] value = getProgress(LEFT);
+            animator.playTogether(
+                    ObjectAnimator.ofFloat(target, View.ROTATION_Y, -value[0] * 90.0f, -value[1] * 90.0f),
+                    ObjectAnimator.ofFloat(target, View.ALPHA, mEnter ? 0.0f : 1.0f, mEnter ? 1.0f : 0.0f)
+            );
+        }
+    }
+
+}
@@ -14,6 +14,8 @@ import com.mct.base.ui.transition.annotation.AnimDirection;
 
 public class RotateAnimator extends ViewPropertyAnimator {
 
+    private static final AccelerateDecelerateInterpolator INTERPOLATOR = new AccelerateDecelerateInterpolator();
+
     protected final @AnimDirection int mDirection;
     protected final boolean mEnter;
 
@@ -51,7 +53,7 @@ public class RotateAnimator extends ViewPropertyAnimator {
         mDirection = direction;
         mEnter = enter;
         setDuration(duration);
-        setInterpolator(new AccelerateDecelerateInterpolator());
+        setInterpolator(INTERPOLATOR);
     }
 
     protected boolean isInitAnimator() {
@@ -65,7 +67,7 @@ public class RotateAnimator extends ViewPropertyAnimator {
             return;
         }
         int rotate = 180;
-        animator.play(ObjectAnimator.ofFloat(target, "rotation", mEnter ? -rotate : 0, mEnter ? 0 : rotate));
+        animator.play(ObjectAnimator.ofFloat(target, View.ROTATION, mEnter ? -rotate : 0, mEnter ? 0 : rotate));
     }
 
     private static class RotateUpAnimator extends RotateAnimator {
@@ -82,15 +84,15 @@ public class RotateAnimator extends ViewPropertyAnimator {
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
             View parent = getTargetParent();
-            float x = mDirection == LEFT ? parent.getPaddingLeft() : parent.getWidth() - parent.getPaddingRight();
-            float y = parent.getHeight() - parent.getPaddingBottom();
+            float x = mDirection == LEFT ? parent.getPaddingLeft() : getContainerWidth() - parent.getPaddingRight();
+            float y = getContainerHeight() - parent.getPaddingBottom();
             animator.playTogether(
-                    ObjectAnimator.ofFloat(target, "pivotX", x, x),
-                    ObjectAnimator.ofFloat(target, "pivotY", y, y)
+                    ObjectAnimator.ofFloat(target, PIVOT_X, x, x),
+                    ObjectAnimator.ofFloat(target, PIVOT_Y, y, y)
             );
             animator.play(mEnter
-                    ? ObjectAnimator.ofFloat(target, "rotation", mDirection == LEFT ? 90 : -90, 0)
-                    : ObjectAnimator.ofFloat(target, "rotation", 0, mDirection == LEFT ? -90 : 90));
+                    ? ObjectAnimator.ofFloat(target, View.ROTATION, mDirection == LEFT ? 90 : -90, 0)
+                    : ObjectAnimator.ofFloat(target, View.ROTATION, 0, mDirection == LEFT ? -90 : 90));
         }
     }
 
@@ -108,15 +110,15 @@ public class RotateAnimator extends ViewPropertyAnimator {
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
             View parent = getTargetParent();
-            float x = mDirection == RIGHT ? parent.getPaddingLeft() : parent.getWidth() - parent.getPaddingRight();
-            float y = parent.getHeight() - parent.getPaddingBottom();
+            float x = mDirection == RIGHT ? parent.getPaddingLeft() : getContainerWidth() - parent.getPaddingRight();
+            float y = getContainerHeight() - parent.getPaddingBottom();
             animator.playTogether(
-                    ObjectAnimator.ofFloat(target, "pivotX", x, x),
-                    ObjectAnimator.ofFloat(target, "pivotY", y, y)
+                    ObjectAnimator.ofFloat(target, PIVOT_X, x, x),
+                    ObjectAnimator.ofFloat(target, PIVOT_Y, y, y)
             );
             animator.play(mEnter
-                    ? ObjectAnimator.ofFloat(target, "rotation", mDirection == RIGHT ? -90 : 90, 0)
-                    : ObjectAnimator.ofFloat(target, "rotation", 0, mDirection == RIGHT ? 90 : -90));
+                    ? ObjectAnimator.ofFloat(target, View.ROTATION, mDirection == RIGHT ? -90 : 90, 0)
+                    : ObjectAnimator.ofFloat(target, View.ROTATION, 0, mDirection == RIGHT ? 90 : -90));
         }
     }
 
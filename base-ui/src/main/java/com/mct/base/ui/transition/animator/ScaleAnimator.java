@@ -12,6 +12,9 @@ import com.mct.base.ui.transition.annotation.AnimDirection;
 
 public class ScaleAnimator extends ViewPropertyAnimator {
 
+    private static final FastOutLinearInInterpolator FAST_OUT_LINEAR_IN = new FastOutLinearInInterpolator();
+    private static final DecelerateInterpolator DECELERATE = new DecelerateInterpolator();
+
     protected final @AnimDirection int mDirection;
     protected final boolean mEnter;
 
@@ -57,19 +60,19 @@ public class ScaleAnimator extends ViewPropertyAnimator {
             AnimatorSet alphaSet = new AnimatorSet();
             if (mEnter) {
                 alphaSet.playSequentially(
-                        ObjectAnimator.ofFloat(target, "alpha", 0, 0).setDuration(66),
-                        ObjectAnimator.ofFloat(target, "alpha", 0, 1).setDuration(50)
+                        ObjectAnimator.ofFloat(target, View.ALPHA, 0, 0).setDuration(66),
+                        ObjectAnimator.ofFloat(target, View.ALPHA, 0, 1).setDuration(50)
                 );
                 animator.playTogether(alphaSet);
             } else {
                 alphaSet.playSequentially(
-                        ObjectAnimator.ofFloat(target, "alpha", 1, 1).setDuration(66),
-                        ObjectAnimator.ofFloat(target, "alpha", 1, 0).setDuration(50)
+                        ObjectAnimator.ofFloat(target, View.ALPHA, 1, 1).setDuration(66),
+                        ObjectAnimator.ofFloat(target, View.ALPHA, 1, 0).setDuration(50)
                 );
-                ObjectAnimator scaleX = ObjectAnimator.ofFloat(target, "scaleX", 1f, 1.15f);
-                ObjectAnimator scaleY = ObjectAnimator.ofFloat(target, "scaleY", 1f, 1.15f);
-                scaleX.setInterpolator(new FastOutLinearInInterpolator());
-                scaleY.setInterpolator(new FastOutLinearInInterpolator());
+                ObjectAnimator scaleX = ObjectAnimator.ofFloat(target, View.SCALE_X, 1f, 1.15f);
+                ObjectAnimator scaleY = ObjectAnimator.ofFloat(target, View.SCALE_Y, 1f, 1.15f);
+                scaleX.setInterpolator(FAST_OUT_LINEAR_IN);
+                scaleY.setInterpolator(FAST_OUT_LINEAR_IN);
                 animator.playTogether(alphaSet, scaleX, scaleY);
             }
         }
@@ -85,14 +88,14 @@ public class ScaleAnimator extends ViewPropertyAnimator {
         protected void initialAnimator(View target, AnimatorSet animator) {
             super.initialAnimator(target, animator);
             if (mEnter) {
-                ObjectAnimator alpha = ObjectAnimator.ofFloat(target, "alpha", 1f).setDuration(50);
-                ObjectAnimator scaleX = ObjectAnimator.ofFloat(target, "scaleX", 1.2f, 1f);
-                ObjectAnimator scaleY = ObjectAnimator.ofFloat(target, "scaleY", 1.2f, 1f);
-                scaleX.setInterpolator(new DecelerateInterpolator());
-                scaleY.setInterpolator(new DecelerateInterpolator());
+                ObjectAnimator alpha = ObjectAnimator.ofFloat(target, View.ALPHA, 1f).setDuration(50);
+                ObjectAnimator scaleX = ObjectAnimator.ofFloat(target, View.SCALE_X, 1.2f, 1f);
+                ObjectAnimator scaleY = ObjectAnimator.ofFloat(target, View.SCALE_Y, 1.2f, 1f);
+                scaleX.setInterpolator(DECELERATE);
+                scaleY.setInterpolator(DECELERATE);
                 animator.playTogether(alpha, scaleX, scaleY);
             } else {
-                ObjectAnimator alpha = ObjectAnimator.ofFloat(target, "alpha", 0f).setDuration(50);
+                ObjectAnimator alpha = ObjectAnimator.ofFloat(target, View.ALPHA, 0f).setDuration(50);
                 animator.playTogether(alpha);
             }
         }
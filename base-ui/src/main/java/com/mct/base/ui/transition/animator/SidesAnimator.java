@@ -0,0 +1,111 @@
+package com.mct.base.ui.transition.animator;
+
+import static com.mct.base.ui.transition.annotation.AnimDirection.DOWN;
+import static com.mct.base.ui.transition.annotation.AnimDirection.LEFT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.NONE;
+import static com.mct.base.ui.transition.annotation.AnimDirection.RIGHT;
+import static com.mct.base.ui.transition.annotation.AnimDirection.UP;
+
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.util.FloatProperty;
+import android.util.Property;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import com.mct.base.ui.transition.annotation.AnimDirection;
+
+/**
+ * 3D Sides Animator, see {@link com.mct.base.ui.transition.animation.SidesAnimation}
+ */
+public class SidesAnimator extends Camera3DAnimator {
+
+    // Camera distance of the default location, Camera uses 72 units per inch
+    private static final float CAMERA_DEPTH = -DEFAULT_CAMERA_LOCATION_Z * 72.0f;
+
+    // Camera.translate(0, 0, depth) has no view property, the projection is approximated by a scale
+    private static final Property<View, Float> DEPTH = new FloatProperty<View>("depth") {
+        @Override
+        public void setValue(@NonNull View view, float value) {
+            float scale = CAMERA_DEPTH / (CAMERA_DEPTH + value);
+            view.setScaleX(scale);
+            view.setScaleY(scale);
+        }
+
+        @Override
+        public Float get(@NonNull View view) {
+            return CAMERA_DEPTH / view.getScaleX() - CAMERA_DEPTH;
+        }
+    };
+
+    /**
+     * Create new Animator.
+     *
+     * @param view      Target of animator
+     * @param direction Direction of animator
+     * @param enter     true for Enter / false for Exit
+     * @param duration  Duration of animator
+     * @return SidesAnimator
+     */
+    public static @NonNull SidesAnimator create(View view, @AnimDirection int direction, boolean enter, long duration) {
+        switch (direction) {
+            case UP:
+            case DOWN:
+                return new VerticalSidesAnimator(view, direction, enter, duration);
+            case LEFT:
+            case RIGHT:
+            case NONE:
+            default:
+                return new HorizontalSidesAnimator(view, direction, enter, duration);
+        }
+    }
+
+    private SidesAnimator(View view, @AnimDirection int direction, boolean enter, long duration) {
+        super(view, direction, enter, duration);
+    }
+
+    protected void playAlphaAndDepth(View target, AnimatorSet animator, float depth) {
+        animator.playTogether(
+                ObjectAnimator.ofFloat(target, View.ALPHA, mEnter ? 0.0f : 1.0f, mEnter ? 1.0f : 0.0f),
+                ObjectAnimator.ofFloat(target, DEPTH, mEnter ? depth : 0.0f, mEnter ? 0.0f : depth)
+        );
+    }
+
+    private static class VerticalSidesAnimator extends SidesAnimator {
+
+        private VerticalSidesAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            target.setPivotX(getTargetWidth(target) * 0.5f);
+            target.setPivotY((mEnter == (mDirection == DOWN)) ? 0.0f : getTargetHeight(target));
+            setCameraLocation(target, DEFAULT_CAMERA_LOCATION_Z);
+            float[] value = getProgress(UP);
+            animator.play(ObjectAnimator.ofFloat(target, View.ROTATION_X, value[0] * 90.0f, value[1] * 90.0f));
+            playAlphaAndDepth(target, animator, getTargetWidth(target));
+        }
+    }
+
+    private static class HorizontalSidesAnimator extends SidesAnimator {
+
+        private HorizontalSidesAnimator(View view, int direction, boolean enter, long duration) {
+            super(view, direction, enter, duration);
+        }
+
+        @Override
+        protected void initialAnimator(View target, AnimatorSet animator) {
+            super.initialAnimator(target, animator);
+            target.setPivotX((mEnter == (mDirection == RIGHT)) ? 0.0f : getTargetWidth(target));
+            target.setPivotY(getTargetHeight(target) * 0.5f);
+            setCameraLocation(target, DEFAULT_CAMERA_LOCATION_Z);
+            float[] value = getProgress(LEFT);
+            animator.play(ObjectAnimator.ofFloat(target, View.ROTATION_Y, -value[0] * 90.0f, -value[1] * 90.0f));
+            playAlphaAndDepth(target, animator, getTargetHeight(target));
+        }
+    }
+
+}
@@ -5,10 +5,13 @@ import android.animation.AnimatorSet;
 import android.animation.ObjectAnimator;
 import android.animation.TimeInterpolator;
 import android.os.Build;
+import android.util.FloatProperty;
+import android.util.Property;
 import android.view.View;
 
 import androidx.annotation.CallSuper;
 import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 
@@ -17,12 +20,40 @@ import java.util.ArrayList;
 
 public class ViewPropertyAnimator extends Animator {
 
+    protected static final Property<View, Float> PIVOT_X = new FloatProperty<View>("pivotX") {
+        @Override
+        public void setValue(@NonNull View view, float value) {
+            view.setPivotX(value);
+        }
+
+        @Override
+        public Float get(@NonNull View view) {
+            return view.getPivotX();
+        }
+    };
+
+    protected static final Property<View, Float> PIVOT_Y = new FloatProperty<View>("pivotY") {
+        @Override
+        public void setValue(@NonNull View view, float value) {
+            view.setPivotY(value);
+        }
+
+        @Override
+        public Float get(@NonNull View view) {
+            return view.getPivotY();
+        }
+    };
+
     private final WeakReference<View> mTarget;
     private final AnimatorSet mAnimatorSet;
     private boolean mIsInit;
 
     private float mFromAlpha = -1.0f;
     private float mToAlpha = -1.0f;
+    private float mFromScale = -1.0f;
+    private float mToScale = -1.0f;
+    private int mContainerWidth;
+    private int mContainerHeight;
 
     public ViewPropertyAnimator(View view) {
         mTarget = new WeakReference<>(view);
@@ -35,6 +66,66 @@ public class ViewPropertyAnimator extends Animator {
         return this;
     }
 
+    /**
+     * Scale around the view pivot, it takes over the scale of the animators that scale the view
+     * (sides, scale).
+     */
+    public ViewPropertyAnimator scaling(float fromScale, float toScale) {
+        mFromScale = fromScale;
+        mToScale = toScale;
+        return this;
+    }
+
+    /**
+     * Known size of the container, the animator can then be built before the target is
+     * attached and laid out, see {@link #prepare()}.
+     */
+    public ViewPropertyAnimator containerSize(int width, int height) {
+        mContainerWidth = width;
+        mContainerHeight = height;
+        return this;
+    }
+
+    protected int getContainerWidth() {
+        return mContainerWidth > 0 ? mContainerWidth : getTargetParent().getWidth();
+    }
+
+    protected int getContainerHeight() {
+        return mContainerHeight > 0 ? mContainerHeight : getTargetParent().getHeight();
+    }
+
+    /**
+     * @return width of the target, the container width while the target is not laid out
+     */
+    protected int getTargetWidth(@NonNull View target) {
+        return target.getWidth() > 0 ? target.getWidth() : getContainerWidth();
+    }
+
+    /**
+     * @return height of the target, the container height while the target is not laid out
+     */
+    protected int getTargetHeight(@NonNull View target) {
+        return target.getHeight() > 0 ? target.getHeight() : getContainerHeight();
+    }
+
+    /**
+     * @return true when the animator can be built and started on a detached target,
+     * it needs the size of the container
+     */
+    protected boolean canStartDetached() {
+        return mContainerWidth > 0 && mContainerHeight > 0;
+    }
+
+    /**
+     * Build the animator now when {@link #canStartDetached()}, otherwise it is built on start.
+     */
+    public void prepare() {
+        View target = mTarget.get();
+        if (target != null && !mIsInit && canStartDetached()) {
+            initialAnimator(target, mAnimatorSet);
+        }
+    }
+
     protected View getTargetParent() {
         View view = mTarget.get();
         View parent = (View) view.getParent();
@@ -49,8 +140,27 @@ public class ViewPropertyAnimator extends Animator {
     protected void initialAnimator(View target, AnimatorSet animator) {
         mIsInit = true;
         if (mFromAlpha >= 0 && mToAlpha >= 0) {
-            animator.play(ObjectAnimator.ofFloat(target, "alpha", mFromAlpha, mToAlpha));
+            animator.play(ObjectAnimator.ofFloat(target, View.ALPHA, mFromAlpha, mToAlpha));
+        }
+        if (mFromScale >= 0 && mToScale >= 0) {
+            animator.play(ObjectAnimator.ofFloat(target, View.SCALE_X, mFromScale, mToScale));
+            animator.play(ObjectAnimator.ofFloat(target, View.SCALE_Y, mFromScale, mToScale));
+        }
+    }
+
+    /**
+     * Set the properties at this fraction of the animation, running or not.
+     */
+    @RequiresApi(api = Build.VERSION_CODES.O)
+    public void setCurrentFraction(@FloatRange(from = 0.0f, to = 1.0f) float fraction) {
+        View target = mTarget.get();
+        if (target == null) {
+            return;
+        }
+        if (!mIsInit) {
+            initialAnimator(target, mAnimatorSet);
         }
+        mAnimatorSet.setCurrentPlayTime((long) (fraction * mAnimatorSet.getTotalDuration()));
     }
 
     @Override
@@ -59,12 +169,12 @@ public class ViewPropertyAnimator extends Animator {
         if (target == null) {
             return;
         }
-        if (target.getHandler() == null) {
+        if (target.getHandler() == null && !canStartDetached()) {
             target.post(this::start);
             return;
         }
         if (!mIsInit) {
-            initialAnimator(mTarget.get(), mAnimatorSet);
+            initialAnimator(target, mAnimatorSet);
         }
         mAnimatorSet.start();
     }
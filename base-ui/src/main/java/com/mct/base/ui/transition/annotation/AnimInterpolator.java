@@ -0,0 +1,34 @@
+package com.mct.base.ui.transition.annotation;
+
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.ACCELERATE;
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.ACCELERATE_DECELERATE;
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.DECELERATE;
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.DEFAULT;
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.FAST_OUT_LINEAR_IN;
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.FAST_OUT_SLOW_IN;
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.LINEAR;
+import static com.mct.base.ui.transition.annotation.AnimInterpolator.LINEAR_OUT_SLOW_IN;
+
+import androidx.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Interpolator of a transition, {@link #DEFAULT} keeps the one of the animation style.
+ */
+@IntDef({DEFAULT, LINEAR, ACCELERATE, DECELERATE, ACCELERATE_DECELERATE, FAST_OUT_SLOW_IN, FAST_OUT_LINEAR_IN, LINEAR_OUT_SLOW_IN})
+@Retention(RetentionPolicy.SOURCE)
+public @interface AnimInterpolator {
+    // @formatter:off
+    int DEFAULT                 = 0;
+    int LINEAR                  = 1;
+    int ACCELERATE              = 2;
+    int DECELERATE              = 3;
+    int ACCELERATE_DECELERATE   = 4;
+    int FAST_OUT_SLOW_IN        = 5;
+    int FAST_OUT_LINEAR_IN      = 6;
+    int LINEAR_OUT_SLOW_IN      = 7;
+    // @formatter:on
+
+}
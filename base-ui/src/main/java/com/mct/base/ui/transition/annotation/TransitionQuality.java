@@ -0,0 +1,24 @@
+package com.mct.base.ui.transition.annotation;
+
+import static com.mct.base.ui.transition.annotation.TransitionQuality.FULL;
+import static com.mct.base.ui.transition.annotation.TransitionQuality.LOW;
+import static com.mct.base.ui.transition.annotation.TransitionQuality.REDUCED;
+
+import androidx.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * Quality of a transition decided by {@link com.mct.base.ui.transition.TransitionQualityPolicy}.
+ */
+@IntDef({FULL, REDUCED, LOW})
+@Retention(RetentionPolicy.SOURCE)
+public @interface TransitionQuality {
+    // @formatter:off
+    int FULL    = 0; // note: options are not changed
+    int REDUCED = 1; // note: no fade and scale layers, no overlay, composite styles run as MOVE
+    int LOW     = 2; // note: REDUCED and every 3D style runs as MOVE, circular reveal as FADE
+    // @formatter:on
+
+}
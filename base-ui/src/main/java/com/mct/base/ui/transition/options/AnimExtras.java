@@ -1,21 +1,47 @@
 package com.mct.base.ui.transition.options;
 
 import android.animation.Animator;
+import android.annotation.SuppressLint;
+import android.os.Build;
+import android.view.View;
 import android.view.animation.Animation;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Transformation;
 
+import androidx.annotation.FloatRange;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.mct.base.ui.transition.animation.ViewPropertyAnimation;
+import com.mct.base.ui.transition.animator.CircularRevealAnimator;
+import com.mct.base.ui.transition.animator.ViewPropertyAnimator;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class AnimExtras extends SimpleListenerAdapter {
 
+    static final int NO_POOL = -1;
+    // the frame time of the view can be a little behind the current time
+    private static final long END_TIME_MARGIN = 100;
+    // a drawn view ends the animation within a few frames
+    private static final long END_FALLBACK_DELAY = 50;
+
     public final Animation animation;
     public final Animator animator;
     private int transit;
     private boolean enter;
     private int nextAnim;
-    private List<AnimExtrasListener> mListeners;
+    private final List<AnimExtrasListener> mListeners = new ArrayList<>(2);
+    private View mLayerView;
+    private View mTargetView;
+    private final Runnable mEndFallback = this::dispatchEnd;
+    private boolean mLayerPromoted;
+    private boolean mEnded;
+    private float mStartFraction;
+    private Transformation mSeekTransformation;
+    private float mSeekAlpha = -1.0f;
+    int poolKey = NO_POOL;
 
     public AnimExtras(Animation animation) {
         this.animation = animation;
@@ -63,51 +89,225 @@ public class AnimExtras extends SimpleListenerAdapter {
         return nextAnim;
     }
 
+    /**
+     * Render this view in a hardware layer while the animation runs, the view content is not
+     * redrawn on every frame. The layer type is restored when the animation ends or is canceled.
+     * Views that already have a layer are left as they are.
+     */
+    public void setHardwareLayerView(@Nullable View view) {
+        restoreLayerType();
+        this.mLayerView = view;
+    }
+
+    /**
+     * The view running the animation, {@link #end()} redraws it to end the animation.
+     */
+    public void setTargetView(@Nullable View view) {
+        this.mTargetView = view;
+    }
+
     public void addAnimationListener(AnimExtrasListener listener) {
         if (listener == null) {
             return;
         }
-        if (mListeners == null) {
-            mListeners = new ArrayList<>();
-        }
         if (!mListeners.contains(listener)) {
             mListeners.add(listener);
         }
     }
 
     public void removeAnimationListener(AnimExtrasListener listener) {
-        if (mListeners == null) {
+        mListeners.remove(listener);
+    }
+
+    public void removeAllListeners() {
+        mListeners.clear();
+    }
+
+    public boolean isEnded() {
+        return mEnded;
+    }
+
+    /**
+     * Finish the transition from its current progress, the view jumps to its end state.<br/>
+     * An animator ends now. An animation ends on the next frame of its view, as if it had run
+     * for its whole duration, the listeners are called from there. A view that is not drawn
+     * (hidden, detached) never reaches that frame, the listeners are then called now.
+     */
+    public void end() {
+        if (mEnded) {
             return;
         }
-        mListeners.remove(listener);
-        if (mListeners.size() == 0) {
-            mListeners = null;
+        if (animator != null) {
+            animator.end();
+        } else if (animation != null) {
+            long startTime = AnimationUtils.currentAnimationTimeMillis()
+                    - animation.getStartOffset() - animation.getDuration() - END_TIME_MARGIN;
+            animation.setStartTime(startTime);
+            View view = mTargetView;
+            if (view != null && view.isShown() && view.getWindowVisibility() == View.VISIBLE) {
+                view.invalidate();
+                view.postDelayed(mEndFallback, END_FALLBACK_DELAY);
+            } else {
+                dispatchEnd();
+            }
         }
     }
 
-    public void removeAllListeners() {
-        if (mListeners != null) {
-            mListeners.clear();
-            mListeners = null;
+    /**
+     * Run the transition from this fraction, e.g. where a back gesture released it.
+     * An animation gets an earlier start time from {@code TransitionClock}, an animator is sought
+     * when it starts (api 26 and above).
+     */
+    public void setStartFraction(@FloatRange(from = 0.0f, to = 1.0f) float fraction) {
+        this.mStartFraction = fraction;
+    }
+
+    public float getStartFraction() {
+        return mStartFraction;
+    }
+
+    /**
+     * @return true when {@link #seek(View, float)} can show the transition at any progress:
+     * {@link ViewPropertyAnimation} from api 29 (animation matrix of the view) and
+     * {@link ViewPropertyAnimator} from api 26 (seekable AnimatorSet)
+     */
+    public boolean isSeekable() {
+        if (animation instanceof ViewPropertyAnimation) {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q;
+        }
+        if (animator instanceof ViewPropertyAnimator && !(animator instanceof CircularRevealAnimator)) {
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.O;
+        }
+        return false;
+    }
+
+    /**
+     * Show the transition at this fraction without running it, see {@link #isSeekable()}.
+     *
+     * @param view the view of the transition, target of the animator
+     */
+    @SuppressLint("NewApi")
+    public void seek(@NonNull View view, @FloatRange(from = 0.0f, to = 1.0f) float fraction) {
+        if (!isSeekable()) {
+            return;
+        }
+        if (animator != null) {
+            ((ViewPropertyAnimator) animator).setCurrentFraction(fraction);
+            return;
         }
+        ViewPropertyAnimation seekable = (ViewPropertyAnimation) animation;
+        if (!seekable.isInitialized()) {
+            View parent = view.getParent() instanceof View ? (View) view.getParent() : view;
+            seekable.initialize(view.getWidth(), view.getHeight(), parent.getWidth(), parent.getHeight());
+        }
+        if (mSeekTransformation == null) {
+            mSeekTransformation = new Transformation();
+        }
+        if (mSeekAlpha < 0) {
+            mSeekAlpha = view.getAlpha();
+        }
+        seekable.getTransformationAt(fraction, mSeekTransformation);
+        view.setAnimationMatrix(mSeekTransformation.getMatrix());
+        view.setAlpha(mSeekAlpha * mSeekTransformation.getAlpha());
+    }
+
+    /**
+     * Show the view as it was before {@link #seek(View, float)}.
+     */
+    @SuppressLint("NewApi")
+    public void clearSeek(@NonNull View view) {
+        if (!isSeekable()) {
+            return;
+        }
+        if (animator != null) {
+            // identity is the end of an enter and the start of an exit
+            ((ViewPropertyAnimator) animator).setCurrentFraction(enter ? 1.0f : 0.0f);
+            return;
+        }
+        view.setAnimationMatrix(null);
+        if (mSeekAlpha >= 0) {
+            view.setAlpha(mSeekAlpha);
+            mSeekAlpha = -1.0f;
+        }
+    }
+
+    /**
+     * Ready to run again, called when it goes back to the pool.
+     */
+    void reset() {
+        removeAllListeners();
+        setHardwareLayerView(null);
+        clearTargetView();
+        mEnded = false;
+        mStartFraction = 0;
+        mSeekAlpha = -1.0f;
     }
 
     @Override
+    @SuppressLint("NewApi")
     protected void onAnimationStart() {
+        if (mStartFraction > 0 && animator != null && isSeekable()) {
+            ((ViewPropertyAnimator) animator).setCurrentFraction(mStartFraction);
+        }
+        promoteLayerType();
+        // index loop, listeners may remove themselves and no iterator is allocated
         List<AnimExtrasListener> listeners = mListeners;
-        if (listeners != null) for (AnimExtrasListener listener : listeners) {
-            if (listener != null) {
-                listener.onAnimationStart(AnimExtras.this);
-            }
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onAnimationStart(AnimExtras.this);
         }
     }
 
+    @Override
+    protected void onAnimationCancel() {
+        // the end follows for an animator, the listeners get it once
+        onAnimationEnd();
+    }
+
     @Override
     protected void onAnimationEnd() {
+        if (mEnded) {
+            return;
+        }
+        mEnded = true;
+        restoreLayerType();
+        mLayerView = null;
+        clearTargetView();
         List<AnimExtrasListener> listeners = mListeners;
-        if (listeners != null) for (AnimExtrasListener listener : listeners) {
-            if (listener != null) {
-                listener.onAnimationEnd(AnimExtras.this);
+        for (int i = 0; i < listeners.size(); i++) {
+            listeners.get(i).onAnimationEnd(AnimExtras.this);
+        }
+    }
+
+    /**
+     * End without a frame of the view, the view may still hold the animation, it is not pooled.
+     */
+    private void dispatchEnd() {
+        poolKey = NO_POOL;
+        onAnimationEnd();
+    }
+
+    private void clearTargetView() {
+        if (mTargetView != null) {
+            mTargetView.removeCallbacks(mEndFallback);
+            mTargetView = null;
+        }
+    }
+
+    private void promoteLayerType() {
+        View view = mLayerView;
+        if (view != null && !mLayerPromoted
+                && view.getLayerType() == View.LAYER_TYPE_NONE
+                && view.isHardwareAccelerated()) {
+            view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            mLayerPromoted = true;
+        }
+    }
+
+    private void restoreLayerType() {
+        if (mLayerPromoted) {
+            mLayerPromoted = false;
+            if (mLayerView != null && mLayerView.getLayerType() == View.LAYER_TYPE_HARDWARE) {
+                mLayerView.setLayerType(View.LAYER_TYPE_NONE, null);
             }
         }
     }
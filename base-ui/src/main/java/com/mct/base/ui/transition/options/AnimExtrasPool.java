@@ -0,0 +1,73 @@
+package com.mct.base.ui.transition.options;
+
+import android.util.SparseArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of {@link AnimExtras} built from {@link AnimOptions} values, main thread only.<br/>
+ * An animation only depends on its options value and enter flag, the duration is set again
+ * when it is acquired. Only {@link android.view.animation.Animation} based extras are pooled,
+ * they must be released once no view holds the animation anymore.
+ */
+@UiThread
+public final class AnimExtrasPool {
+
+    private static final int MAX_POOL_SIZE = 2;
+    private static final SparseArray<ArrayDeque<AnimExtras>> sPool = new SparseArray<>();
+
+    public static int key(int optionsValue, boolean enter) {
+        return (Math.abs(optionsValue) << 1) | (enter ? 1 : 0);
+    }
+
+    @Nullable
+    public static AnimExtras acquire(int key, long duration) {
+        ArrayDeque<AnimExtras> pool = sPool.get(key);
+        AnimExtras extras = pool != null ? pool.poll() : null;
+        if (extras != null && extras.animation != null) {
+            extras.animation.setDuration(duration);
+        }
+        return extras;
+    }
+
+    /**
+     * Mark the extras as poolable, it will be kept by {@link #release(AnimExtras)}.
+     */
+    @NonNull
+    public static AnimExtras attach(@NonNull AnimExtras extras, int key) {
+        if (extras.animation != null) {
+            extras.poolKey = key;
+        }
+        return extras;
+    }
+
+    public static void release(@NonNull AnimExtras extras) {
+        int key = extras.poolKey;
+        if (key == AnimExtras.NO_POOL || extras.animation == null) {
+            return;
+        }
+        extras.reset();
+        extras.animation.reset();
+        ArrayDeque<AnimExtras> pool = sPool.get(key);
+        if (pool == null) {
+            pool = new ArrayDeque<>(MAX_POOL_SIZE);
+            sPool.put(key, pool);
+        }
+        if (pool.size() < MAX_POOL_SIZE && !pool.contains(extras)) {
+            pool.offer(extras);
+        }
+    }
+
+    public static void clear() {
+        sPool.clear();
+    }
+
+    private AnimExtrasPool() {
+        //no instance
+    }
+
+}
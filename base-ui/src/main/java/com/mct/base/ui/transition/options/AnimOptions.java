@@ -3,6 +3,7 @@ package com.mct.base.ui.transition.options;
 import androidx.annotation.NonNull;
 
 import com.mct.base.ui.transition.annotation.AnimDirection;
+import com.mct.base.ui.transition.annotation.AnimInterpolator;
 import com.mct.base.ui.transition.annotation.AnimType;
 import com.mct.base.ui.transition.annotation.AnimationStyle;
 import com.mct.base.ui.transition.annotation.AnimatorStyle;
@@ -13,40 +14,78 @@ public class AnimOptions {
     // Converter area
     ///////////////////////////////////////////////////////////////////////////
 
+    /**
+     * Custom duration is stored in steps of {@value #DURATION_STEP} ms.
+     */
+    public static final int DURATION_STEP = 10;
+    public static final int MAX_DURATION = AnimOptionsStorage.DURATION.max() * DURATION_STEP;
+    public static final int MAX_OVERLAY_INTENSITY = AnimOptionsStorage.OVERLAY_INTENSITY.max();
+
+    private static final int EXTENDED_CACHE_SIZE = 64;
+
+    // every base encoding (type, style, direction, overlay) is pre-built
+    private static final AnimOptions[] sBaseOptions = new AnimOptions[1 << AnimOptionsStorage.DURATION.startBit()];
+    // extended encodings are built on first use, direct mapped by value
+    private static final AnimOptions[] sExtendedOptions = new AnimOptions[EXTENDED_CACHE_SIZE];
+
+    static {
+        for (int value = 0; value < sBaseOptions.length; value++) {
+            sBaseOptions[value] = new AnimOptions(value);
+        }
+    }
+
+    /**
+     * Decode an options value, the returned instance is shared and immutable.<br/>
+     * Nothing is allocated, except the first time an extended value (custom duration, interpolator,
+     * overlay intensity, property animator or layers) is decoded or when it was evicted from the cache.
+     */
     @NonNull
     public static AnimOptions fromOptionsValue(int value) {
-        value = Math.abs(value);
-        return new AnimOptions.Builder()
-                .type(AnimOptionsStorage.TYPE.get(value))
-                .style(AnimOptionsStorage.STYLE.get(value))
-                .direction(AnimOptionsStorage.DIRECTION.get(value))
-                .overlay(AnimOptionsStorage.OVERLAY.get(value) != 0)
-                .build();
+        value = Math.abs(value) & Integer.MAX_VALUE;
+        if (value < sBaseOptions.length) {
+            return sBaseOptions[value];
+        }
+        int slot = (value ^ (value >>> 9) ^ (value >>> 18)) & (EXTENDED_CACHE_SIZE - 1);
+        AnimOptions options = sExtendedOptions[slot];
+        if (options == null || options.value != value) {
+            options = new AnimOptions(value);
+            sExtendedOptions[slot] = options;
+        }
+        return options;
     }
 
     public static int toOptionsValue(@NonNull AnimOptions options) {
-        int value = 0;
-        value = AnimOptionsStorage.TYPE.set(value, options.animType);
-        value = AnimOptionsStorage.STYLE.set(value, options.animStyle);
-        value = AnimOptionsStorage.DIRECTION.set(value, options.animDirection);
-        value = AnimOptionsStorage.OVERLAY.set(value, options.animOverlay);
-        return -Math.abs(value);
+        return -options.value;
     }
 
     ///////////////////////////////////////////////////////////////////////////
     // Class area
     ///////////////////////////////////////////////////////////////////////////
 
+    private final int value;
     private final int animType;
     private final int animStyle;
     private final int animDirection;
     private final int animOverlay;
+    private final int duration;
+    private final int interpolator;
+    private final int overlayIntensity;
+    private final int propertyAnimator;
+    private final int fade;
+    private final int scale;
 
-    private AnimOptions(@NonNull Builder builder) {
-        this.animType = builder.animType;
-        this.animStyle = builder.animStyle;
-        this.animDirection = builder.animDirection;
-        this.animOverlay = builder.animOverlay;
+    private AnimOptions(int value) {
+        this.value = value;
+        this.animType = AnimOptionsStorage.TYPE.get(value);
+        this.animStyle = AnimOptionsStorage.STYLE.get(value);
+        this.animDirection = AnimOptionsStorage.DIRECTION.get(value);
+        this.animOverlay = AnimOptionsStorage.OVERLAY.get(value);
+        this.duration = AnimOptionsStorage.DURATION.get(value) * DURATION_STEP;
+        this.interpolator = AnimOptionsStorage.INTERPOLATOR.get(value);
+        this.overlayIntensity = AnimOptionsStorage.OVERLAY_INTENSITY.get(value);
+        this.propertyAnimator = AnimOptionsStorage.PROPERTY_ANIMATOR.get(value);
+        this.fade = AnimOptionsStorage.FADE.get(value);
+        this.scale = AnimOptionsStorage.SCALE.get(value);
     }
 
     @AnimType
@@ -67,6 +106,41 @@ public class AnimOptions {
         return animOverlay != 0;
     }
 
+    /**
+     * @return duration in milliseconds, 0 when the fragment duration is used
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    @AnimInterpolator
+    public int getInterpolator() {
+        return interpolator;
+    }
+
+    /**
+     * @return overlay intensity from 1 to {@link #MAX_OVERLAY_INTENSITY},
+     * 0 when the fragment overlay color is used
+     */
+    public int getOverlayIntensity() {
+        return overlayIntensity;
+    }
+
+    /**
+     * @return true when an {@link AnimationStyle} runs with view property animators
+     */
+    public boolean isPropertyAnimator() {
+        return propertyAnimator != 0;
+    }
+
+    public boolean hasFade() {
+        return fade != 0;
+    }
+
+    public boolean hasScale() {
+        return scale != 0;
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // Builder area
     ///////////////////////////////////////////////////////////////////////////
@@ -81,11 +155,36 @@ public class AnimOptions {
         return new Builder().animator().style(style);
     }
 
+    /**
+     * @return a builder initialized with these options
+     */
+    @NonNull
+    public Builder buildUpon() {
+        Builder builder = new Builder();
+        builder.animType = animType;
+        builder.animStyle = animStyle;
+        builder.animDirection = animDirection;
+        builder.animOverlay = animOverlay;
+        builder.duration = duration;
+        builder.interpolator = interpolator;
+        builder.overlayIntensity = overlayIntensity;
+        builder.propertyAnimator = propertyAnimator;
+        builder.fade = fade;
+        builder.scale = scale;
+        return builder;
+    }
+
     public static class Builder {
         private int animType;
         private int animStyle;
         private int animDirection;
         private int animOverlay;
+        private int duration;
+        private int interpolator;
+        private int overlayIntensity;
+        private int propertyAnimator;
+        private int fade;
+        private int scale;
 
         private Builder() {
         }
@@ -110,6 +209,70 @@ public class AnimOptions {
             return this;
         }
 
+        /**
+         * @param duration in milliseconds, rounded up to {@link #DURATION_STEP},
+         *                 from 0 (fragment duration) to {@link #MAX_DURATION}
+         */
+        public Builder duration(int duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public Builder interpolator(@AnimInterpolator int interpolator) {
+            this.interpolator = interpolator;
+            return this;
+        }
+
+        /**
+         * @param overlayIntensity alpha of the overlay from 0 (fragment overlay color)
+         *                         to {@link #MAX_OVERLAY_INTENSITY} (opaque)
+         */
+        public Builder overlayIntensity(int overlayIntensity) {
+            this.overlayIntensity = overlayIntensity;
+            return this;
+        }
+
+        /**
+         * Run the {@link AnimationStyle} with view property animators (rotation, camera distance,
+         * pivot, translation) instead of a {@link android.view.animation.Animation} computing a
+         * Camera matrix on each frame. Ignored by {@link AnimType#ANIMATOR}.
+         */
+        public Builder propertyAnimator(boolean propertyAnimator) {
+            this.propertyAnimator = propertyAnimator ? 1 : 0;
+            return this;
+        }
+
+        public Builder propertyAnimator() {
+            return this.propertyAnimator(true);
+        }
+
+        /**
+         * Fade layer on top of the style, fade in on enter and out on exit, on every
+         * {@link AnimType}. It replaces the partial fade of the composite {@link AnimationStyle}.
+         */
+        public Builder fade(boolean fade) {
+            this.fade = fade ? 1 : 0;
+            return this;
+        }
+
+        public Builder fade() {
+            return this.fade(true);
+        }
+
+        /**
+         * Scale layer on top of the style, on every {@link AnimType}. Around the view center for
+         * {@link AnimType#ANIMATION}, around the view pivot for animators, where it takes over the
+         * scale of the styles that scale the view.
+         */
+        public Builder scale(boolean scale) {
+            this.scale = scale ? 1 : 0;
+            return this;
+        }
+
+        public Builder scale() {
+            return this.scale(true);
+        }
+
         public Builder animation() {
             return this.type(AnimType.ANIMATION);
         }
@@ -139,7 +302,21 @@ public class AnimOptions {
         }
 
         public AnimOptions build() {
-            return new AnimOptions(this);
+            if (duration < 0 || duration > MAX_DURATION) {
+                throw new IllegalArgumentException("Duration must be between 0 and " + MAX_DURATION + ".");
+            }
+            int value = 0;
+            value = AnimOptionsStorage.TYPE.set(value, animType);
+            value = AnimOptionsStorage.STYLE.set(value, animStyle);
+            value = AnimOptionsStorage.DIRECTION.set(value, animDirection);
+            value = AnimOptionsStorage.OVERLAY.set(value, animOverlay);
+            value = AnimOptionsStorage.DURATION.set(value, (duration + DURATION_STEP - 1) / DURATION_STEP);
+            value = AnimOptionsStorage.INTERPOLATOR.set(value, interpolator);
+            value = AnimOptionsStorage.OVERLAY_INTENSITY.set(value, overlayIntensity);
+            value = AnimOptionsStorage.PROPERTY_ANIMATOR.set(value, propertyAnimator);
+            value = AnimOptionsStorage.FADE.set(value, fade);
+            value = AnimOptionsStorage.SCALE.set(value, scale);
+            return fromOptionsValue(value);
         }
     }
 
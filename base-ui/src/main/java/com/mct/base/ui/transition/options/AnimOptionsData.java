@@ -10,6 +10,8 @@ public class AnimOptionsData {
     private int duration;
     private boolean enter;
     private Point circularPosition;
+    private int containerWidth;
+    private int containerHeight;
 
     public AnimOptions getOptions() {
         return options;
@@ -50,4 +52,20 @@ public class AnimOptionsData {
     public void setCircularPosition(Point circularPosition) {
         this.circularPosition = circularPosition;
     }
+
+    public int getContainerWidth() {
+        return containerWidth;
+    }
+
+    public int getContainerHeight() {
+        return containerHeight;
+    }
+
+    /**
+     * Size of the laid out container, 0 when unknown.
+     */
+    public void setContainerSize(int width, int height) {
+        this.containerWidth = width;
+        this.containerHeight = height;
+    }
 }
@@ -2,8 +2,13 @@ package com.mct.base.ui.transition.options;
 
 enum AnimOptionsStorage {
 
-    // current use 9 bit of int
-    TYPE(1), STYLE(4), DIRECTION(3), OVERLAY(1);
+    // current use 28 bit of int
+    // the first 9 bits are the base options, every value is pre-built by AnimOptions
+    TYPE(1), STYLE(4), DIRECTION(3), OVERLAY(1),
+    // extended options, 0 means the default value
+    DURATION(9), INTERPOLATOR(3), OVERLAY_INTENSITY(4), PROPERTY_ANIMATOR(1),
+    // layers added on top of an AnimationStyle
+    FADE(1), SCALE(1);
 
     static {
         int bitSum = 0;
@@ -38,4 +43,12 @@ enum AnimOptionsStorage {
     public int get(int options) {
         return (options >> startBit) & mask;
     }
+
+    public int startBit() {
+        return startBit;
+    }
+
+    public int max() {
+        return mask;
+    }
 }
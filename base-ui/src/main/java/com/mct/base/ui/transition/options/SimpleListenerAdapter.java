@@ -11,6 +11,9 @@ abstract class SimpleListenerAdapter implements Animation.AnimationListener, Ani
 
     protected abstract void onAnimationEnd();
 
+    protected void onAnimationCancel() {
+    }
+
     @Override
     public void onAnimationStart(@NonNull Animator animation) {
         onAnimationStart();
@@ -23,6 +26,7 @@ abstract class SimpleListenerAdapter implements Animation.AnimationListener, Ani
 
     @Override
     public void onAnimationCancel(@NonNull Animator animation) {
+        onAnimationCancel();
     }
 
     @Override
@@ -0,0 +1,206 @@
+package com.mct.base.ui.widget;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.FloatRange;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Container of fragments running {@link com.mct.base.ui.BaseFragment} transitions without
+ * changing its hierarchy: the scrim is drawn below the front child while a transition runs,
+ * the touches are blocked while a fragment blocks them and the front child is drawn last by a custom drawing order.<br/>
+ * Use its id as the container id of the activity or the parent fragment.
+ */
+public class FragmentContainerLayout extends FrameLayout {
+
+    private View mFrontChild;
+    @ColorInt
+    private int mScrimColor = Color.TRANSPARENT;
+    private float mScrimAlpha = 1.0f;
+    private final Map<Object, OnBlockedTouchListener> mTouchBlockers = new LinkedHashMap<>(2);
+    private boolean mBlockingGesture;
+
+    public FragmentContainerLayout(@NonNull Context context) {
+        super(context);
+    }
+
+    public FragmentContainerLayout(@NonNull Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public FragmentContainerLayout(@NonNull Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Drawing order
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Draw this child above the others, e.g. the entering fragment of a push or the exiting
+     * fragment of a pop. Null keeps the order of the children.
+     */
+    public void setFrontChild(@Nullable View child) {
+        if (child != null && child.getParent() != this) {
+            child = null;
+        }
+        if (mFrontChild == child) {
+            return;
+        }
+        mFrontChild = child;
+        setChildrenDrawingOrderEnabled(child != null);
+        invalidate();
+    }
+
+    @Nullable
+    public View getFrontChild() {
+        return mFrontChild;
+    }
+
+    @Override
+    protected int getChildDrawingOrder(int childCount, int drawingPosition) {
+        int front = mFrontChild != null ? indexOfChild(mFrontChild) : -1;
+        if (front < 0) {
+            return drawingPosition;
+        }
+        if (drawingPosition == childCount - 1) {
+            return front;
+        }
+        return drawingPosition >= front ? drawingPosition + 1 : drawingPosition;
+    }
+
+    @Override
+    public void onViewRemoved(View child) {
+        super.onViewRemoved(child);
+        if (child == mFrontChild) {
+            setFrontChild(null);
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Scrim
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Draw this color below the front child, nothing is drawn without front child.
+     * Set by the running transition, {@link Color#TRANSPARENT} hides the scrim when it ends.
+     */
+    public void setScrimColor(@ColorInt int color) {
+        if (mScrimColor != color) {
+            mScrimColor = color;
+            invalidate();
+        }
+    }
+
+    @ColorInt
+    public int getScrimColor() {
+        return mScrimColor;
+    }
+
+    /**
+     * Alpha applied to the scrim color, e.g. while the scrim fades with a transition.
+     */
+    public void setScrimAlpha(@FloatRange(from = 0.0f, to = 1.0f) float alpha) {
+        if (mScrimAlpha != alpha) {
+            mScrimAlpha = alpha;
+            if (Color.alpha(mScrimColor) != 0) {
+                invalidate();
+            }
+        }
+    }
+
+    public float getScrimAlpha() {
+        return mScrimAlpha;
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+        if (child == mFrontChild) {
+            drawScrim(canvas);
+        }
+        return super.drawChild(canvas, child, drawingTime);
+    }
+
+    private void drawScrim(Canvas canvas) {
+        int alpha = (int) (Color.alpha(mScrimColor) * mScrimAlpha);
+        if (alpha > 0) {
+            canvas.drawColor((alpha << 24) | (mScrimColor & 0x00ffffff));
+        }
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // Touch
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Block the touches of the children until {@link #unblockTouch(Object)} with the same owner,
+     * e.g. the entering and the exiting fragments while a transition runs.<br/>
+     * A blocked touch down is reported to the listeners of the owners first, the gesture goes to
+     * the children if all of them handle it (e.g. they end their transition).
+     *
+     * @param owner    one block per owner, blocking again replaces its listener
+     * @param listener null blocks the whole gesture
+     */
+    public void blockTouch(@NonNull Object owner, @Nullable OnBlockedTouchListener listener) {
+        mTouchBlockers.put(owner, listener);
+    }
+
+    /**
+     * Remove the block of this owner and its listener.
+     */
+    public void unblockTouch(@NonNull Object owner) {
+        mTouchBlockers.remove(owner);
+    }
+
+    public boolean isTouchBlocked() {
+        return !mTouchBlockers.isEmpty();
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            // the transitions can end on the next frame, the listener results are used instead of the blocks
+            mBlockingGesture = false;
+            if (!mTouchBlockers.isEmpty()) {
+                // a listener ending its transition unblocks its owner
+                List<OnBlockedTouchListener> listeners = new ArrayList<>(mTouchBlockers.values());
+                for (OnBlockedTouchListener listener : listeners) {
+                    if (listener == null || !listener.onBlockedTouch(this)) {
+                        mBlockingGesture = true;
+                    }
+                }
+            }
+        }
+        if (mBlockingGesture) {
+            if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                mBlockingGesture = false;
+            }
+            return true;
+        }
+        return super.dispatchTouchEvent(ev);
+    }
+
+    public interface OnBlockedTouchListener {
+        /**
+         * @return true to let the gesture go to the children
+         */
+        boolean onBlockedTouch(@NonNull FragmentContainerLayout layout);
+    }
+
+}
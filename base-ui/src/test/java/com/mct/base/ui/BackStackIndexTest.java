@@ -0,0 +1,181 @@
+package com.mct.base.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+
+import com.mct.base.ui.core.IBackStackEntry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Local unit test of {@link BackStackIndex}, the FragmentManager back stack is simulated.
+ */
+public class BackStackIndexTest {
+
+    private static final String DETAIL = DetailFragment.class.getName();
+
+    @Test
+    public void twoInstancesOfOneClass_resolveTheirOwnFragment() {
+        FakeFragmentManager fm = new FakeFragmentManager();
+        BackStackIndex index = new BackStackIndex(fm, i -> {
+        });
+        DetailFragment first = new DetailFragment();
+        DetailFragment second = new DetailFragment();
+
+        index.bind(fm.push(DETAIL), first);
+        index.bind(fm.push(DETAIL), second);
+        index.onBackStackChanged();
+
+        assertEquals(2, index.size());
+        assertSame(second, index.findFragment(index.findLast(DetailFragment.class)));
+        assertSame(first, index.findFragment(index.getAt(0)));
+        assertSame(second, index.findFragment(index.getTop()));
+
+        fm.pop();
+        index.onBackStackChanged();
+
+        assertSame(first, index.findFragment(index.findLast(DetailFragment.class)));
+    }
+
+    @Test
+    public void popThenPush_sameCountAndTopName_reindexed() {
+        FakeFragmentManager fm = new FakeFragmentManager();
+        BackStackIndex index = new BackStackIndex(fm, i -> {
+        });
+        fm.push(DETAIL);
+        int replaced = fm.push(DETAIL);
+        index.onBackStackChanged();
+
+        fm.pop();
+        int pushed = fm.push(DETAIL);
+        index.onBackStackChanged();
+
+        assertEquals(2, index.size());
+        assertEquals(pushed, index.getTop().getId());
+        assertEquals(1, index.getTop().getPosition());
+        assertEquals(pushed, index.findLast(DetailFragment.class).getId());
+        assertEquals(2, index.snapshot().size());
+        assertNotEquals(replaced, pushed);
+    }
+
+    @Test
+    public void reorderedEntries_rebuiltFromFirstChange() {
+        FakeFragmentManager fm = new FakeFragmentManager();
+        BackStackIndex index = new BackStackIndex(fm, i -> {
+        });
+        int bottom = fm.push(DETAIL);
+        int top = fm.push("com.example.HomeFragment");
+        index.onBackStackChanged();
+
+        Collections.swap(fm.entries, 0, 1);
+        index.onBackStackChanged();
+
+        assertEquals(top, index.getAt(0).getId());
+        assertEquals(bottom, index.getTop().getId());
+        assertEquals(1, index.findLast(DetailFragment.class).getPosition());
+    }
+
+    @Test
+    public void unboundEntry_hasNoFragment() {
+        FakeFragmentManager fm = new FakeFragmentManager();
+        BackStackIndex index = new BackStackIndex(fm, i -> {
+        });
+        fm.push(DETAIL);
+        index.onBackStackChanged();
+
+        IBackStackEntry entry = index.getTop();
+        assertEquals(DETAIL, entry.getFragmentClassName());
+        assertNull(index.findFragment(entry));
+    }
+
+    public static class DetailFragment extends Fragment {
+    }
+
+    private static final class FakeFragmentManager extends FragmentManager {
+        final List<BackStackEntry> entries = new ArrayList<>();
+        int nextId;
+
+        int push(String name) {
+            int id = nextId++;
+            entries.add(new FakeEntry(id, name));
+            return id;
+        }
+
+        void pop() {
+            entries.remove(entries.size() - 1);
+        }
+
+        @Override
+        public int getBackStackEntryCount() {
+            return entries.size();
+        }
+
+        @NonNull
+        @Override
+        public BackStackEntry getBackStackEntryAt(int index) {
+            return entries.get(index);
+        }
+
+        @NonNull
+        @Override
+        public List<Fragment> getFragments() {
+            return Collections.emptyList();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static final class FakeEntry implements FragmentManager.BackStackEntry {
+        private final int id;
+        private final String name;
+
+        FakeEntry(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Nullable
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getBreadCrumbTitleRes() {
+            return 0;
+        }
+
+        @Override
+        public int getBreadCrumbShortTitleRes() {
+            return 0;
+        }
+
+        @Nullable
+        @Override
+        public CharSequence getBreadCrumbTitle() {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public CharSequence getBreadCrumbShortTitle() {
+            return null;
+        }
+    }
+
+}
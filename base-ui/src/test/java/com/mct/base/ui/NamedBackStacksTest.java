@@ -0,0 +1,64 @@
+package com.mct.base.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.mct.base.ui.core.IExtraTransaction;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Local unit test of {@link NamedBackStacks}, the back stack is given by the names of its
+ * entries as {@link ExtraTransaction} reads them.
+ */
+public class NamedBackStacksTest {
+
+    private static final String HOME = "com.example.HomeFragment";
+    private static final String DETAIL = "com.example.DetailFragment";
+
+    @Test
+    public void firstSwitch_defaultStackRoundTrip() {
+        NamedBackStacks stacks = new NamedBackStacks();
+
+        // switch to "search" with HOME as root and two entries pushed before
+        NamedBackStacks.Stack from = stacks.addDefault(HOME);
+        from.savedEntryName = NamedBackStacks.findSavedEntryName(Arrays.asList(DETAIL, HOME));
+        stacks.setCurrent(new NamedBackStacks.Stack("search", "com.example.SearchFragment#1"));
+
+        assertEquals("search", stacks.getCurrent());
+        assertTrue(stacks.isInactiveRoot(HOME));
+
+        // switch back to the default stack
+        NamedBackStacks.Stack to = stacks.get(IExtraTransaction.DEFAULT_BACK_STACK);
+        assertSame(from, to);
+        assertEquals(HOME, to.rootTag);
+        assertEquals(DETAIL, to.savedEntryName);
+        stacks.setCurrent(to);
+
+        assertEquals(IExtraTransaction.DEFAULT_BACK_STACK, stacks.getCurrent());
+        assertFalse(stacks.isInactiveRoot(HOME));
+        assertTrue(stacks.isInactiveRoot("com.example.SearchFragment#1"));
+    }
+
+    @Test
+    public void findSavedEntryName_firstNameNotReused() {
+        assertEquals(DETAIL, NamedBackStacks.findSavedEntryName(Collections.singletonList(DETAIL)));
+        assertEquals(DETAIL, NamedBackStacks.findSavedEntryName(Arrays.asList(DETAIL, HOME)));
+        assertEquals(DETAIL, NamedBackStacks.findSavedEntryName(Arrays.asList(DETAIL, DETAIL, HOME)));
+    }
+
+    @Test
+    public void findSavedEntryName_firstNameReusedAbove() {
+        // saveBackStack(DETAIL) would only save the top entry
+        assertNull(NamedBackStacks.findSavedEntryName(Arrays.asList(DETAIL, HOME, DETAIL)));
+        assertNull(NamedBackStacks.findSavedEntryName(Collections.singletonList(null)));
+        assertNull(NamedBackStacks.findSavedEntryName(Collections.emptyList()));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.mct.base.ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local unit test of {@link PendingExecution}, the main thread queue and the FragmentManager
+ * execution of pending transactions are simulated.
+ */
+public class PendingExecutionTest {
+
+    @Test
+    public void pop_flagStillSetWhenPopExecutes() {
+        MainQueue queue = new MainQueue();
+        boolean[] pendingViewDestroy = {true};
+        List<Boolean> seenByPop = new ArrayList<>();
+        PendingExecution execution = new PendingExecution(queue, () -> pendingViewDestroy[0] = false);
+
+        // popBackStack posts the execution of the pending transactions
+        execution.commit(() -> queue.post(() -> seenByPop.add(pendingViewDestroy[0])));
+        queue.drain();
+
+        assertEquals(1, seenByPop.size());
+        assertTrue(seenByPop.get(0));
+        assertFalse(pendingViewDestroy[0]);
+    }
+
+    @Test
+    public void pop_executedByEarlierMessage_flagStillSet() {
+        MainQueue queue = new MainQueue();
+        boolean[] silentExit = {true};
+        List<Runnable> pendingTransactions = new ArrayList<>();
+        List<Boolean> seenByPop = new ArrayList<>();
+        PendingExecution execution = new PendingExecution(queue, () -> silentExit[0] = false);
+
+        // a previous commit already posted the execution, the pop joins its pending transactions
+        queue.post(() -> {
+            for (Runnable transaction : pendingTransactions) {
+                transaction.run();
+            }
+        });
+        execution.commit(() -> pendingTransactions.add(() -> seenByPop.add(silentExit[0])));
+        queue.drain();
+
+        assertEquals(1, seenByPop.size());
+        assertTrue(seenByPop.get(0));
+        assertFalse(silentExit[0]);
+    }
+
+    @Test
+    public void successiveCommits_releaseOnceAfterLastExecution() {
+        MainQueue queue = new MainQueue();
+        int[] releases = {0};
+        List<Integer> seenByCommits = new ArrayList<>();
+        PendingExecution execution = new PendingExecution(queue, () -> releases[0]++);
+
+        execution.commit(() -> queue.post(() -> seenByCommits.add(releases[0])));
+        execution.commit(() -> queue.post(() -> seenByCommits.add(releases[0])));
+        queue.drain();
+
+        assertEquals(2, seenByCommits.size());
+        assertEquals(0, (int) seenByCommits.get(0));
+        assertEquals(0, (int) seenByCommits.get(1));
+        assertEquals(1, releases[0]);
+    }
+
+    private static class MainQueue implements PendingExecution.Scheduler {
+        private final ArrayDeque<Runnable> mMessages = new ArrayDeque<>();
+
+        @Override
+        public void post(@NonNull Runnable runnable) {
+            mMessages.offer(runnable);
+        }
+
+        @Override
+        public void removeCallbacks(@NonNull Runnable runnable) {
+            mMessages.removeIf(message -> message == runnable);
+        }
+
+        void drain() {
+            Runnable message;
+            while ((message = mMessages.poll()) != null) {
+                message.run();
+            }
+        }
+    }
+
+}
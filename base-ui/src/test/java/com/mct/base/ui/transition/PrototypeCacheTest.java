@@ -0,0 +1,134 @@
+package com.mct.base.ui.transition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.annotation.SuppressLint;
+
+import androidx.annotation.NonNull;
+import androidx.fragment.R;
+
+import org.junit.Test;
+
+/**
+ * Local unit test of {@link PrototypeCache}, with the androidx fragment animator resources
+ * used by {@link TransitFragmentTransition}. The factory caches their resource type names,
+ * the animators themselves are cached by {@code AnimatorInflater}.
+ */
+@SuppressLint("PrivateResource")
+public class PrototypeCacheTest {
+
+    private static final Object SOURCE = new Object();
+    private static final int[] TRANSIT_ANIMATORS = {
+            R.animator.fragment_open_enter, R.animator.fragment_open_exit,
+            R.animator.fragment_fade_enter, R.animator.fragment_fade_exit
+    };
+
+    @Test
+    public void repeatedNavigations_loadEachResourceOnce() {
+        CountingLoader loader = new CountingLoader();
+        PrototypeCache<Object, int[]> cache = new PrototypeCache<>(loader);
+        for (int navigation = 0; navigation < 10; navigation++) {
+            for (int id : TRANSIT_ANIMATORS) {
+                assertEquals(id, cache.get(SOURCE, id)[0]);
+            }
+        }
+        assertEquals(TRANSIT_ANIMATORS.length, loader.loads);
+        assertEquals(TRANSIT_ANIMATORS.length, cache.size());
+    }
+
+    @Test
+    public void repeatedNavigations_resolveEachResourceTypeOnce() {
+        int[] lookups = {0};
+        PrototypeCache<Object, String> typeNames = new PrototypeCache<>(new PrototypeCache.Loader<Object, String>() {
+            @Override
+            public String load(@NonNull Object source, int id) {
+                // Resources.getResourceTypeName
+                lookups[0]++;
+                return "animator";
+            }
+
+            @NonNull
+            @Override
+            public String copy(@NonNull String prototype) {
+                return prototype;
+            }
+        });
+        for (int navigation = 0; navigation < 10; navigation++) {
+            for (int id : TRANSIT_ANIMATORS) {
+                assertEquals("animator", typeNames.get(SOURCE, id));
+            }
+        }
+        assertEquals(TRANSIT_ANIMATORS.length, lookups[0]);
+    }
+
+    @Test
+    public void get_returnsCopyOfPrototype() {
+        PrototypeCache<Object, int[]> cache = new PrototypeCache<>(new CountingLoader());
+        int[] first = cache.get(SOURCE, R.animator.fragment_open_enter);
+        int[] second = cache.get(SOURCE, R.animator.fragment_open_enter);
+        assertNotSame(first, second);
+        first[0] = 0;
+        assertEquals(R.animator.fragment_open_enter, cache.get(SOURCE, R.animator.fragment_open_enter)[0]);
+    }
+
+    @Test
+    public void clear_reloadsResources() {
+        CountingLoader loader = new CountingLoader();
+        PrototypeCache<Object, int[]> cache = new PrototypeCache<>(loader);
+        cache.get(SOURCE, R.animator.fragment_fade_enter);
+        cache.clear();
+        cache.get(SOURCE, R.animator.fragment_fade_enter);
+        assertEquals(2, loader.loads);
+    }
+
+    @Test
+    public void missingResource_isNotCached() {
+        CountingLoader loader = new CountingLoader();
+        PrototypeCache<Object, int[]> cache = new PrototypeCache<>(loader);
+        assertNull(cache.get(SOURCE, 0));
+        assertNull(cache.get(SOURCE, 0));
+        assertEquals(2, loader.loads);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void loader_receivesSource() {
+        Object[] received = new Object[1];
+        PrototypeCache<Object, String> cache = new PrototypeCache<>(new PrototypeCache.Loader<Object, String>() {
+            @Override
+            public String load(@NonNull Object source, int id) {
+                received[0] = source;
+                return "animator";
+            }
+
+            @NonNull
+            @Override
+            public String copy(@NonNull String prototype) {
+                return prototype;
+            }
+        });
+        String first = cache.get(SOURCE, R.animator.fragment_close_enter);
+        assertSame(SOURCE, received[0]);
+        assertSame(first, cache.get(new Object(), R.animator.fragment_close_enter));
+    }
+
+    private static final class CountingLoader implements PrototypeCache.Loader<Object, int[]> {
+        int loads;
+
+        @Override
+        public int[] load(@NonNull Object source, int id) {
+            loads++;
+            return id == 0 ? null : new int[]{id};
+        }
+
+        @NonNull
+        @Override
+        public int[] copy(@NonNull int[] prototype) {
+            return prototype.clone();
+        }
+    }
+
+}
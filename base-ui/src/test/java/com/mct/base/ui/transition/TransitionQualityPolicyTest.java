@@ -0,0 +1,62 @@
+package com.mct.base.ui.transition;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import com.mct.base.ui.transition.annotation.AnimationStyle;
+import com.mct.base.ui.transition.annotation.AnimatorStyle;
+import com.mct.base.ui.transition.annotation.TransitionQuality;
+import com.mct.base.ui.transition.options.AnimOptions;
+
+import org.junit.Test;
+
+/**
+ * Local unit test of {@link TransitionQualityPolicy#downgrade(AnimOptions, int)}.
+ */
+public class TransitionQualityPolicyTest {
+
+    @Test
+    public void full_keepsOptions() {
+        AnimOptions options = AnimOptions.animation(AnimationStyle.CUBE_FLIP).left().overlay().fade().build();
+        assertSame(options, TransitionQualityPolicy.downgrade(options, TransitionQuality.FULL));
+    }
+
+    @Test
+    public void reduced_dropsLayersOverlayAndComposites() {
+        AnimOptions options = AnimOptions.animation(AnimationStyle.CUBE_MOVE).left()
+                .overlay().overlayIntensity(8).fade().scale().duration(250).build();
+        AnimOptions result = TransitionQualityPolicy.downgrade(options, TransitionQuality.REDUCED);
+        assertEquals(AnimationStyle.MOVE, result.getAnimStyle());
+        assertEquals(options.getAnimDirection(), result.getAnimDirection());
+        assertEquals(options.getDuration(), result.getDuration());
+        assertFalse(result.hasOverlay());
+        assertEquals(0, result.getOverlayIntensity());
+        assertFalse(result.hasFade());
+        assertFalse(result.hasScale());
+
+        AnimOptions cube = AnimOptions.animation(AnimationStyle.CUBE).up().build();
+        assertEquals(AnimationStyle.CUBE, TransitionQualityPolicy.downgrade(cube, TransitionQuality.REDUCED).getAnimStyle());
+    }
+
+    @Test
+    public void low_runsDepthStylesAsMove() {
+        int[] styles = {AnimationStyle.CUBE, AnimationStyle.FLIP, AnimationStyle.PUSH_PULL, AnimationStyle.SIDES};
+        for (int style : styles) {
+            AnimOptions options = AnimOptions.animation(style).right().propertyAnimator().build();
+            AnimOptions result = TransitionQualityPolicy.downgrade(options, TransitionQuality.LOW);
+            assertEquals(AnimationStyle.MOVE, result.getAnimStyle());
+            assertEquals(options.isPropertyAnimator(), result.isPropertyAnimator());
+        }
+        AnimOptions none = AnimOptions.animation(AnimationStyle.NONE).build();
+        assertEquals(AnimationStyle.NONE, TransitionQualityPolicy.downgrade(none, TransitionQuality.LOW).getAnimStyle());
+    }
+
+    @Test
+    public void low_runsCircularRevealAsFade() {
+        AnimOptions reveal = AnimOptions.animator(AnimatorStyle.CIRCULAR_REVEAL).build();
+        assertEquals(AnimatorStyle.CIRCULAR_REVEAL, TransitionQualityPolicy.downgrade(reveal, TransitionQuality.REDUCED).getAnimStyle());
+        assertEquals(AnimatorStyle.FADE, TransitionQualityPolicy.downgrade(reveal, TransitionQuality.LOW).getAnimStyle());
+    }
+
+}
@@ -0,0 +1,269 @@
+package com.mct.base.ui.transition.animation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Local unit test of {@link Camera3D}.<br/>
+ * {@link android.graphics.Camera} is native, the expected values come from {@link ReferenceCamera},
+ * a double precision port of the Skia SkCamera3D / Sk3DView code behind it.
+ */
+public class Camera3DTest {
+
+    private static final float WIDTH = 1080;
+    private static final float HEIGHT = 1920;
+    private static final float[][] POINTS = {
+            {0, 0}, {WIDTH, 0}, {0, HEIGHT}, {WIDTH, HEIGHT}, {WIDTH * 0.5f, HEIGHT * 0.5f}, {WIDTH * 0.25f, HEIGHT * 0.75f}
+    };
+
+    @Test
+    public void zeroRotation_isIdentity() {
+        float[] m = new float[9];
+        Camera3D.getMatrix(m, 0, 0, -8, 0, 0, 0, 0);
+        float[] identity = {1, 0, 0, 0, 1, 0, 0, 0, 1};
+        for (int i = 0; i < 9; i++) {
+            assertEquals(identity[i], m[i], 1e-6f);
+        }
+    }
+
+    @Test
+    public void rotateZ_isPlaneRotation() {
+        float[] m = new float[9];
+        for (int deg = -180; deg <= 180; deg += 5) {
+            Camera3D.getMatrix(m, 0, 0, -8, 0, 0, 0, deg);
+            double rad = Math.toRadians(deg);
+            // Camera y axis points up, rotateZ is counter clockwise on screen
+            assertEquals(Math.cos(rad), m[0], 1e-5);
+            assertEquals(Math.sin(rad), m[1], 1e-5);
+            assertEquals(-Math.sin(rad), m[3], 1e-5);
+            assertEquals(Math.cos(rad), m[4], 1e-5);
+            assertEquals(0, m[6], 1e-7);
+            assertEquals(0, m[7], 1e-7);
+        }
+    }
+
+    @Test
+    public void getMatrix_matchesCamera() {
+        float[] m = new float[9];
+        float[][] locations = {{0, 0, -8}, {0, 0, -WIDTH * 0.015f}, {0, 0, -HEIGHT * 0.015f}, {1, -2, -12}};
+        float[] depths = {0, 200, WIDTH};
+        for (float[] location : locations) {
+            for (float depth : depths) {
+                for (int rx = -180; rx <= 180; rx += 30) {
+                    for (int ry = -180; ry <= 180; ry += 30) {
+                        for (int rz = -180; rz <= 180; rz += 45) {
+                            Camera3D.getMatrix(m, location[0], location[1], location[2], depth, rx, ry, rz);
+                            double[] expected = new ReferenceCamera()
+                                    .setLocation(location[0], location[1], location[2])
+                                    .translate(0, 0, depth)
+                                    .rotateX(rx)
+                                    .rotateY(ry)
+                                    .rotateZ(rz)
+                                    .getMatrix();
+                            assertSameMapping(expected, m);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void viewTransform_matchesMatrixOperations() {
+        float[] m = new float[9];
+        float[][] pivots = {{0, 0}, {WIDTH, HEIGHT * 0.5f}, {WIDTH * 0.5f, HEIGHT}};
+        float[][] scales = {{1, 1}, {0.5f, 0.8f}, {1.2f, 1.2f}};
+        for (float[] pivot : pivots) {
+            for (float[] scale : scales) {
+                for (int ry = -90; ry <= 90; ry += 15) {
+                    float tx = ry * 3;
+                    float ty = -ry * 2;
+
+                    Camera3D.getMatrix(m, 0, 0, -WIDTH * 0.015f, 0, 0, ry, 0);
+                    Camera3D.aroundPivot(m, pivot[0], pivot[1]);
+                    Camera3D.postScale(m, scale[0], scale[1], pivot[0], pivot[1]);
+                    Camera3D.postTranslate(m, tx, ty);
+
+                    double[] expected = new ReferenceCamera()
+                            .setLocation(0, 0, -WIDTH * 0.015f)
+                            .rotateY(ry)
+                            .getMatrix();
+                    expected = concat(expected, translate(-pivot[0], -pivot[1]));
+                    expected = concat(translate(pivot[0], pivot[1]), expected);
+                    expected = concat(scale(scale[0], scale[1]), expected);
+                    expected = concat(translate(-(pivot[0] / WIDTH) * ((scale[0] * WIDTH) - WIDTH),
+                            -(pivot[1] / HEIGHT) * ((scale[1] * HEIGHT) - HEIGHT)), expected);
+                    expected = concat(translate(tx, ty), expected);
+                    assertSameMapping(expected, m);
+                }
+            }
+        }
+    }
+
+    private static void assertSameMapping(double[] expected, float[] actual) {
+        for (float[] point : POINTS) {
+            double[] e = map(expected, point[0], point[1]);
+            double[] a = map(toDouble(actual), point[0], point[1]);
+            if (Math.abs(e[2]) < 0.1) {
+                continue; // close to the camera plane, not drawn
+            }
+            assertEquals(e[2], a[2], 1e-4 * Math.max(1, Math.abs(e[2])));
+            assertTrue(Math.abs(e[0] - a[0]) <= 1e-3 * Math.max(1, Math.abs(e[0])));
+            assertTrue(Math.abs(e[1] - a[1]) <= 1e-3 * Math.max(1, Math.abs(e[1])));
+        }
+    }
+
+    private static double[] map(double[] m, double x, double y) {
+        double w = m[6] * x + m[7] * y + m[8];
+        return new double[]{(m[0] * x + m[1] * y + m[2]) / w, (m[3] * x + m[4] * y + m[5]) / w, w};
+    }
+
+    private static double[] toDouble(float[] m) {
+        double[] result = new double[9];
+        for (int i = 0; i < 9; i++) {
+            result[i] = m[i];
+        }
+        return result;
+    }
+
+    private static double[] translate(double dx, double dy) {
+        return new double[]{1, 0, dx, 0, 1, dy, 0, 0, 1};
+    }
+
+    private static double[] scale(double sx, double sy) {
+        return new double[]{sx, 0, 0, 0, sy, 0, 0, 0, 1};
+    }
+
+    private static double[] concat(double[] a, double[] b) {
+        double[] result = new double[9];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                for (int k = 0; k < 3; k++) {
+                    result[row * 3 + col] += a[row * 3 + k] * b[k * 3 + col];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sk3DView and SkCamera3D without the closed form: 4x4 matrix, patch and camera orientation.
+     */
+    private static final class ReferenceCamera {
+        private final double[] mMatrix = {1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0, 1};
+        private final double[] mLocation = {0, 0, -576};
+        private final double[] mObserver = {0, 0, -576};
+
+        ReferenceCamera setLocation(double x, double y, double z) {
+            mLocation[0] = x * 72;
+            mLocation[1] = y * 72;
+            mLocation[2] = z * 72;
+            mObserver[2] = z * 72;
+            return this;
+        }
+
+        ReferenceCamera translate(double x, double y, double z) {
+            return preConcat(new double[]{1, 0, 0, x, 0, 1, 0, y, 0, 0, 1, z, 0, 0, 0, 1});
+        }
+
+        ReferenceCamera rotateX(double deg) {
+            return rotate(1, 0, 0, deg);
+        }
+
+        ReferenceCamera rotateY(double deg) {
+            return rotate(0, -1, 0, deg);
+        }
+
+        ReferenceCamera rotateZ(double deg) {
+            return rotate(0, 0, 1, deg);
+        }
+
+        double[] getMatrix() {
+            // camera orientation
+            double[] axis = {0, 0, 1};
+            double[] zenith = {0, -1, 0};
+            double d = dot(axis, zenith);
+            for (int i = 0; i < 3; i++) {
+                zenith[i] -= d * axis[i];
+            }
+            normalize(zenith);
+            double[] cross = {
+                    axis[1] * zenith[2] - axis[2] * zenith[1],
+                    axis[2] * zenith[0] - axis[0] * zenith[2],
+                    axis[0] * zenith[1] - axis[1] * zenith[0]
+            };
+            double x = mObserver[0], y = mObserver[1], z = mObserver[2];
+            double[] orientation = {
+                    x * axis[0] - z * cross[0], x * axis[1] - z * cross[1], x * axis[2] - z * cross[2],
+                    y * axis[0] - z * zenith[0], y * axis[1] - z * zenith[1], y * axis[2] - z * zenith[2],
+                    axis[0], axis[1], axis[2]
+            };
+
+            // patch
+            double[] u = mapVector(1, 0, 0);
+            double[] v = mapVector(0, -1, 0);
+            double[] origin = {mMatrix[3], mMatrix[7], mMatrix[11]};
+            double[] diff = {origin[0] - mLocation[0], origin[1] - mLocation[1], origin[2] - mLocation[2]};
+            double dot = diff[0] * orientation[6] + diff[1] * orientation[7] + diff[2] * orientation[8];
+
+            double[] result = new double[9];
+            for (int row = 0; row < 3; row++) {
+                result[row * 3] = rowDot(orientation, row, u) / dot;
+                result[row * 3 + 1] = rowDot(orientation, row, v) / dot;
+                result[row * 3 + 2] = rowDot(orientation, row, diff) / dot;
+            }
+            result[8] = 1;
+            return result;
+        }
+
+        private ReferenceCamera rotate(double x, double y, double z, double deg) {
+            double rad = Math.toRadians(deg);
+            double c = Math.cos(rad), s = Math.sin(rad), t = 1 - c;
+            return preConcat(new double[]{
+                    t * x * x + c, t * x * y - s * z, t * x * z + s * y, 0,
+                    t * x * y + s * z, t * y * y + c, t * y * z - s * x, 0,
+                    t * x * z - s * y, t * y * z + s * x, t * z * z + c, 0,
+                    0, 0, 0, 1
+            });
+        }
+
+        private ReferenceCamera preConcat(double[] other) {
+            double[] result = new double[16];
+            for (int row = 0; row < 4; row++) {
+                for (int col = 0; col < 4; col++) {
+                    for (int k = 0; k < 4; k++) {
+                        result[row * 4 + col] += mMatrix[row * 4 + k] * other[k * 4 + col];
+                    }
+                }
+            }
+            System.arraycopy(result, 0, mMatrix, 0, 16);
+            return this;
+        }
+
+        private double[] mapVector(double x, double y, double z) {
+            double[] result = new double[3];
+            for (int row = 0; row < 3; row++) {
+                result[row] = mMatrix[row * 4] * x + mMatrix[row * 4 + 1] * y + mMatrix[row * 4 + 2] * z;
+            }
+            return result;
+        }
+
+        private static double rowDot(double[] m, int row, double[] v) {
+            return m[row * 3] * v[0] + m[row * 3 + 1] * v[1] + m[row * 3 + 2] * v[2];
+        }
+
+        private static double dot(double[] a, double[] b) {
+            return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+        }
+
+        private static void normalize(double[] v) {
+            double length = Math.sqrt(dot(v, v));
+            for (int i = 0; i < 3; i++) {
+                v[i] /= length;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+package com.mct.base.ui.transition.options;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Local unit test of the {@link AnimOptions} encoding, every field value is checked.
+ */
+public class AnimOptionsCodecTest {
+
+    private static final int BASE_SIZE = 1 << AnimOptionsStorage.DURATION.startBit();
+
+    @Test
+    public void layout_isCompatible() {
+        // values encoded before the extended options must decode the same
+        assertEquals(0, AnimOptionsStorage.TYPE.startBit());
+        assertEquals(1, AnimOptionsStorage.STYLE.startBit());
+        assertEquals(5, AnimOptionsStorage.DIRECTION.startBit());
+        assertEquals(8, AnimOptionsStorage.OVERLAY.startBit());
+        assertEquals(512, BASE_SIZE);
+        AnimOptionsStorage last = AnimOptionsStorage.SCALE;
+        assertTrue(last.startBit() + Integer.bitCount(last.max()) <= 31);
+    }
+
+    @Test
+    public void baseEncodings_decodeToSharedInstances() {
+        for (int value = 0; value < BASE_SIZE; value++) {
+            AnimOptions options = AnimOptions.fromOptionsValue(value);
+            assertSame(options, AnimOptions.fromOptionsValue(value));
+            assertSame(options, AnimOptions.fromOptionsValue(-value));
+            assertFields(value, options);
+            assertEquals(-value, AnimOptions.toOptionsValue(options));
+        }
+    }
+
+    @Test
+    public void baseEncodings_matchBuilder() {
+        for (int type = 0; type <= AnimOptionsStorage.TYPE.max(); type++) {
+            for (int style = 0; style <= AnimOptionsStorage.STYLE.max(); style++) {
+                for (int direction = 0; direction <= AnimOptionsStorage.DIRECTION.max(); direction++) {
+                    for (int overlay = 0; overlay <= 1; overlay++) {
+                        AnimOptions options = AnimOptions.animation(style)
+                                .type(type)
+                                .direction(direction)
+                                .overlay(overlay != 0)
+                                .build();
+                        int value = encode(type, style, direction, overlay, 0, 0, 0);
+                        assertSame(AnimOptions.fromOptionsValue(value), options);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void extendedEncodings_roundTrip() {
+        int[] bases = {0, 1, 0b1_0100_1101, BASE_SIZE - 1};
+        for (int base : bases) {
+            for (int duration = 0; duration <= AnimOptionsStorage.DURATION.max(); duration++) {
+                for (int interpolator = 0; interpolator <= AnimOptionsStorage.INTERPOLATOR.max(); interpolator++) {
+                    for (int intensity = 0; intensity <= AnimOptionsStorage.OVERLAY_INTENSITY.max(); intensity++) {
+                        int value = base;
+                        value = AnimOptionsStorage.DURATION.set(value, duration);
+                        value = AnimOptionsStorage.INTERPOLATOR.set(value, interpolator);
+                        value = AnimOptionsStorage.OVERLAY_INTENSITY.set(value, intensity);
+                        AnimOptions options = AnimOptions.fromOptionsValue(-value);
+                        assertFields(value, options);
+                        assertEquals(-value, AnimOptions.toOptionsValue(options));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void extendedEncodings_matchBuilder() {
+        for (int base = 0; base < BASE_SIZE; base++) {
+            AnimOptions options = AnimOptions.fromOptionsValue(base);
+            AnimOptions extended = AnimOptions.animation(options.getAnimStyle())
+                    .type(options.getAnimType())
+                    .direction(options.getAnimDirection())
+                    .overlay(options.hasOverlay())
+                    .duration(AnimOptions.MAX_DURATION)
+                    .interpolator(AnimOptionsStorage.INTERPOLATOR.max())
+                    .overlayIntensity(AnimOptions.MAX_OVERLAY_INTENSITY)
+                    .build();
+            assertEquals(base, -AnimOptions.toOptionsValue(extended) & (BASE_SIZE - 1));
+            assertEquals(AnimOptions.MAX_DURATION, extended.getDuration());
+            assertEquals(AnimOptionsStorage.INTERPOLATOR.max(), extended.getInterpolator());
+            assertEquals(AnimOptions.MAX_OVERLAY_INTENSITY, extended.getOverlayIntensity());
+        }
+    }
+
+    @Test
+    public void propertyAnimator_roundTrip() {
+        for (int base = 0; base < BASE_SIZE; base++) {
+            int value = AnimOptionsStorage.PROPERTY_ANIMATOR.set(base, 1);
+            AnimOptions options = AnimOptions.fromOptionsValue(-value);
+            assertFields(value, options);
+            assertTrue(options.isPropertyAnimator());
+            assertEquals(-value, AnimOptions.toOptionsValue(options));
+        }
+        AnimOptions options = AnimOptions.animation(2).left().propertyAnimator().build();
+        assertTrue(options.isPropertyAnimator());
+        assertEquals(2, options.getAnimStyle());
+    }
+
+    @Test
+    public void layers_roundTrip() {
+        for (int base = 0; base < BASE_SIZE; base++) {
+            for (int layers = 1; layers < 4; layers++) {
+                int value = base;
+                value = AnimOptionsStorage.FADE.set(value, layers & 1);
+                value = AnimOptionsStorage.SCALE.set(value, layers >> 1);
+                AnimOptions options = AnimOptions.fromOptionsValue(-value);
+                assertFields(value, options);
+                assertEquals(-value, AnimOptions.toOptionsValue(options));
+            }
+        }
+        AnimOptions options = AnimOptions.animation(1).up().fade().scale().build();
+        assertTrue(options.hasFade());
+        assertTrue(options.hasScale());
+        assertEquals(1, options.getAnimStyle());
+    }
+
+    @Test
+    public void extendedEncodings_areCached() {
+        AnimOptions options = AnimOptions.animation(3).duration(450).build();
+        int value = AnimOptions.toOptionsValue(options);
+        assertSame(options, AnimOptions.fromOptionsValue(value));
+        assertSame(options, AnimOptions.fromOptionsValue(-value));
+    }
+
+    @Test
+    public void duration_isRoundedUpToStep() {
+        assertEquals(0, AnimOptions.animation(0).duration(0).build().getDuration());
+        for (int duration = 1; duration <= AnimOptions.MAX_DURATION; duration++) {
+            int decoded = AnimOptions.animation(0).duration(duration).build().getDuration();
+            assertTrue(decoded >= duration);
+            assertTrue(decoded - duration < AnimOptions.DURATION_STEP);
+            assertEquals(0, decoded % AnimOptions.DURATION_STEP);
+        }
+    }
+
+    @Test
+    public void outOfRangeValues_throw() {
+        assertThrows(IllegalArgumentException.class, () -> AnimOptions.animation(0).duration(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> AnimOptions.animation(0).duration(AnimOptions.MAX_DURATION + 1).build());
+        assertThrows(IllegalArgumentException.class, () -> AnimOptions.animation(0).interpolator(AnimOptionsStorage.INTERPOLATOR.max() + 1).build());
+        assertThrows(IllegalArgumentException.class, () -> AnimOptions.animation(0).overlayIntensity(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> AnimOptions.animation(0).overlayIntensity(AnimOptions.MAX_OVERLAY_INTENSITY + 1).build());
+        assertThrows(IllegalArgumentException.class, () -> AnimOptions.animation(AnimOptionsStorage.STYLE.max() + 1).build());
+        assertThrows(IllegalArgumentException.class, () -> AnimOptions.animation(0).direction(AnimOptionsStorage.DIRECTION.max() + 1).build());
+    }
+
+    @Test
+    public void minValue_doesNotThrow() {
+        assertSame(AnimOptions.fromOptionsValue(0), AnimOptions.fromOptionsValue(Integer.MIN_VALUE));
+    }
+
+    private static void assertFields(int value, AnimOptions options) {
+        assertEquals(AnimOptionsStorage.TYPE.get(value), options.getAnimType());
+        assertEquals(AnimOptionsStorage.STYLE.get(value), options.getAnimStyle());
+        assertEquals(AnimOptionsStorage.DIRECTION.get(value), options.getAnimDirection());
+        assertEquals(AnimOptionsStorage.OVERLAY.get(value) != 0, options.hasOverlay());
+        assertEquals(AnimOptionsStorage.DURATION.get(value) * AnimOptions.DURATION_STEP, options.getDuration());
+        assertEquals(AnimOptionsStorage.INTERPOLATOR.get(value), options.getInterpolator());
+        assertEquals(AnimOptionsStorage.OVERLAY_INTENSITY.get(value), options.getOverlayIntensity());
+        assertEquals(AnimOptionsStorage.PROPERTY_ANIMATOR.get(value) != 0, options.isPropertyAnimator());
+        assertEquals(AnimOptionsStorage.FADE.get(value) != 0, options.hasFade());
+        assertEquals(AnimOptionsStorage.SCALE.get(value) != 0, options.hasScale());
+    }
+
+    private static int encode(int type, int style, int direction, int overlay, int duration, int interpolator, int intensity) {
+        int value = 0;
+        value = AnimOptionsStorage.TYPE.set(value, type);
+        value = AnimOptionsStorage.STYLE.set(value, style);
+        value = AnimOptionsStorage.DIRECTION.set(value, direction);
+        value = AnimOptionsStorage.OVERLAY.set(value, overlay);
+        value = AnimOptionsStorage.DURATION.set(value, duration);
+        value = AnimOptionsStorage.INTERPOLATOR.set(value, interpolator);
+        value = AnimOptionsStorage.OVERLAY_INTENSITY.set(value, intensity);
+        return value;
+    }
+}